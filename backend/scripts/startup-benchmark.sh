@@ -0,0 +1,92 @@
+#!/bin/sh
+# Startup benchmark: time-to-first-request and resident memory for the default
+# profile and the fast-startup profile (lazy init, AOT, CDS).
+#
+# The baseline activates Spring's built-in "default" profile rather than
+# leaving the profile unset, which would fall back to dev and its DEBUG
+# logging. Both rows then share the base logging configuration, so the
+# difference is down to the fast-startup settings alone.
+#
+# Usually run through `./gradlew startupBenchmark`, which builds the extracted
+# jar and CDS archive and sets JAVA_BIN, APP_JAR and CDS_ARCHIVE.
+
+set -eu
+
+JAVA_BIN=${JAVA_BIN:-java}
+APP_JAR=${APP_JAR:?APP_JAR must point at the extracted boot jar}
+CDS_ARCHIVE=${CDS_ARCHIVE:-}
+RUNS=${RUNS:-5}
+PORT=${BENCH_PORT:-18080}
+URL="http://localhost:${PORT}/api/actuator/health"
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+# GNU date prints milliseconds with %3N; BSD and macOS date print a literal "3N"
+case "$(date +%3N)" in
+    *[!0-9]*|'') GNU_DATE= ;;
+    *) GNU_DATE=1 ;;
+esac
+
+now_ms() {
+    if [ -n "$GNU_DATE" ]; then
+        date +%s%3N
+    else
+        perl -MTime::HiRes=time -e 'printf "%d\n", time() * 1000'
+    fi
+}
+
+# Prints "<time-to-first-request ms> <rss kB>" for one run of the given JVM flags
+run_once() {
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    "$JAVA_BIN" $1 -Dserver.port="$PORT" -jar "$APP_JAR" >/dev/null 2>&1 &
+    pid=$!
+
+    deadline=$((start + TIMEOUT_SECONDS * 1000))
+    while :; do
+        # Any HTTP status (including 401) means the server is handling requests
+        code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+        if [ "$code" != "000" ]; then
+            break
+        fi
+        if [ "$(now_ms)" -gt "$deadline" ] || ! kill -0 "$pid" 2>/dev/null; then
+            kill "$pid" 2>/dev/null || true
+            echo "startup failed" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    ttfr=$(( $(now_ms) - start ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ttfr $rss"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+bench() {
+    name=$1
+    flags=$2
+    results=""
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        results="$results$(run_once "$flags")
+"
+        i=$((i + 1))
+    done
+    ttfr=$(printf '%s' "$results" | awk '{ print $1 }' | median)
+    rss=$(printf '%s' "$results" | awk '{ print $2 }' | median)
+    printf '%-12s %10s %10s\n' "$name" "$ttfr" "$((rss / 1024))"
+}
+
+printf 'runs=%s (median)\n' "$RUNS"
+printf '%-12s %10s %10s\n' "profile" "ttfr ms" "rss MB"
+bench default "-Dspring.profiles.active=${DEFAULT_PROFILE:-default}"
+bench fast "-Dspring.profiles.active=fast"
+bench fast-aot "-Dspring.profiles.active=fast -Dspring.aot.enabled=true"
+if [ -n "$CDS_ARCHIVE" ] && [ -f "$CDS_ARCHIVE" ]; then
+    bench fast-cds "-Dspring.profiles.active=fast -Dspring.aot.enabled=true -XX:SharedArchiveFile=$CDS_ARCHIVE"
+fi
@@ -0,0 +1,9 @@
+package com.example.demo.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE,
+    BLOCKCHAIN_CONFIRMED,
+    BLOCKCHAIN_FAILED
+}
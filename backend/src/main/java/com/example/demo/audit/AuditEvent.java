@@ -0,0 +1,66 @@
+package com.example.demo.audit;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.util.JsonLines;
+
+/**
+ * Immutable audit record. Only identifiers, amount and status are captured;
+ * donor details stay out of the audit trail.
+ */
+public final class AuditEvent {
+
+    private final long timestamp;
+    private final AuditAction action;
+    private final String transactionId;
+    private final String charityId;
+    private final String amount;
+    private final String status;
+    private final String thread;
+
+    public AuditEvent(long timestamp, AuditAction action, String transactionId,
+                      String charityId, String amount, String status, String thread) {
+        this.timestamp = timestamp;
+        this.action = action;
+        this.transactionId = transactionId;
+        this.charityId = charityId;
+        this.amount = amount;
+        this.status = status;
+        this.thread = thread;
+    }
+
+    public static AuditEvent of(AuditAction action, Transaction transaction) {
+        return new AuditEvent(
+            System.currentTimeMillis(),
+            action,
+            transaction.getId(),
+            transaction.getCharityId(),
+            transaction.getAmount() != null ? transaction.getAmount().toPlainString() : null,
+            transaction.getStatus(),
+            Thread.currentThread().getName()
+        );
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public AuditAction getAction() { return action; }
+    public String getTransactionId() { return transactionId; }
+    public String getCharityId() { return charityId; }
+    public String getAmount() { return amount; }
+    public String getStatus() { return status; }
+    public String getThread() { return thread; }
+
+    /**
+     * Append this event as a single JSON line
+     */
+    void appendJson(StringBuilder sb) {
+        sb.append("{\"ts\":").append(timestamp);
+        sb.append(",\"action\":\"").append(action.name()).append('"');
+        JsonLines.appendField(sb, "transactionId", transactionId);
+        JsonLines.appendField(sb, "charityId", charityId);
+        if (amount != null) {
+            sb.append(",\"amount\":").append(amount);
+        }
+        JsonLines.appendField(sb, "status", status);
+        JsonLines.appendField(sb, "thread", thread);
+        sb.append("}\n");
+    }
+}
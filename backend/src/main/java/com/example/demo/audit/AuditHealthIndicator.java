@@ -0,0 +1,31 @@
+package com.example.demo.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the audit writer under {@code /actuator/health}. DOWN while audit
+ * events cannot be written, since they are being dropped in the meantime.
+ */
+@Component
+public class AuditHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Override
+    public Health health() {
+        if (!auditLogger.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        Health.Builder builder = auditLogger.isWriterFailing()
+            ? Health.down().withDetail("error", String.valueOf(auditLogger.getLastWriteError()))
+            : Health.up();
+        return builder
+            .withDetail("written", auditLogger.getWrittenCount())
+            .withDetail("dropped", auditLogger.getDroppedCount())
+            .build();
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer that drains the ring buffer in batches and appends them
+ * to rotated audit files named {@code audit-yyyyMMdd-N.log}. Files are only
+ * ever opened for append; a new file is started when the date changes or the
+ * current file reaches the size limit.
+ *
+ * A failed write does not stop the writer: the batch is kept, the file is
+ * closed and the write is retried against a fresh file with a growing delay.
+ * While it is failing the ring buffer fills and further events are dropped
+ * and counted; {@link #isFailing()} reports the condition for health checks.
+ */
+class AuditLogWriter implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long MAX_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final AuditRingBuffer buffer;
+    private final Path directory;
+    private final int batchSize;
+    private final long maxFileBytes;
+    private final long idleParkNanos;
+    private final boolean fsync;
+
+    private final List<AuditEvent> batch;
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+
+    // Encoded batch that has been drained but not yet written
+    private byte[] pending;
+    private int pendingEvents;
+
+    private volatile boolean running = true;
+    private volatile Thread thread;
+
+    private FileChannel channel;
+    private LocalDate currentDate;
+    private int currentIndex;
+    private long currentBytes;
+    private volatile long written;
+    private volatile int consecutiveFailures;
+    private volatile String lastError;
+
+    AuditLogWriter(AuditRingBuffer buffer, Path directory, int batchSize,
+                   long maxFileBytes, long flushIntervalMillis, boolean fsync) {
+        this.buffer = buffer;
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.maxFileBytes = maxFileBytes;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.fsync = fsync;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            while (running) {
+                try {
+                    int drained = drainOnce();
+                    if (drained > 0) {
+                        recovered();
+                    } else {
+                        LockSupport.parkNanos(this, idleParkNanos);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failed(e);
+                    LockSupport.parkNanos(this, retryDelayNanos());
+                }
+            }
+            // Flush whatever was published before shutdown
+            try {
+                while (drainOnce() > 0) {
+                    // keep draining
+                }
+            } catch (IOException e) {
+                logger.error("Audit log writer could not flush {} events at shutdown: {}",
+                    pendingEvents, e.getMessage(), e);
+            }
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    long writtenCount() {
+        return written;
+    }
+
+    boolean isFailing() {
+        return consecutiveFailures > 0;
+    }
+
+    String lastError() {
+        return lastError;
+    }
+
+    int failureCount() {
+        return consecutiveFailures;
+    }
+
+    private int drainOnce() throws IOException {
+        if (pending == null) {
+            batch.clear();
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained == 0) {
+                return 0;
+            }
+            text.setLength(0);
+            for (AuditEvent event : batch) {
+                event.appendJson(text);
+            }
+            pending = text.toString().getBytes(StandardCharsets.UTF_8);
+            pendingEvents = drained;
+        }
+
+        rotateIfNeeded(pending.length);
+        ByteBuffer data = ByteBuffer.wrap(pending);
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        currentBytes += pending.length;
+        written += pendingEvents;
+        int drained = pendingEvents;
+        pending = null;
+        pendingEvents = 0;
+        return drained;
+    }
+
+    private void failed(Exception e) {
+        int failures = ++consecutiveFailures;
+        lastError = e.getMessage();
+        if (failures == 1) {
+            logger.error("Audit log write failed, retrying: {}", e.getMessage(), e);
+        } else {
+            logger.warn("Audit log write failed {} times in a row: {}", failures, e.getMessage());
+        }
+        // Retry in a new file so the batch does not follow a partly written line
+        if (channel != null) {
+            closeQuietly();
+            currentIndex++;
+        }
+    }
+
+    private void recovered() {
+        if (consecutiveFailures > 0) {
+            logger.info("Audit log writer recovered after {} failed attempts, dropped so far={}",
+                consecutiveFailures, buffer.droppedCount());
+            consecutiveFailures = 0;
+            lastError = null;
+        }
+    }
+
+    private long retryDelayNanos() {
+        int shift = Math.min(consecutiveFailures, 16);
+        return Math.min(idleParkNanos << shift, MAX_RETRY_NANOS);
+    }
+
+    private void rotateIfNeeded(int incoming) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (channel != null && today.equals(currentDate) && currentBytes + incoming <= maxFileBytes) {
+            return;
+        }
+        closeQuietly();
+        if (!today.equals(currentDate)) {
+            currentDate = today;
+            currentIndex = 0;
+        }
+        Files.createDirectories(directory);
+        // Skip files left by a previous run that are already full
+        Path file = fileFor(currentDate, currentIndex);
+        while (Files.exists(file) && Files.size(file) + incoming > maxFileBytes) {
+            currentIndex++;
+            file = fileFor(currentDate, currentIndex);
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentBytes = channel.size();
+        logger.debug("Audit log writing to {}", file);
+    }
+
+    private Path fileFor(LocalDate date, int index) {
+        return directory.resolve("audit-" + FILE_DATE.format(date) + "-" + index + ".log");
+    }
+
+    private void closeQuietly() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close audit log file: {}", e.getMessage());
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.audit;
+
+import com.example.demo.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for audit events. Callers publish into a lock-free ring buffer
+ * and return immediately; a single background thread batches the events into
+ * append-only files. Does nothing unless {@code features.audit-logging} is on.
+ */
+@Component
+public class AuditLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogger.class);
+
+    @Value("${features.audit-logging:false}")
+    private boolean enabled;
+
+    @Value("${audit.directory:logs/audit}")
+    private String directory;
+
+    @Value("${audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${audit.max-file-size-mb:64}")
+    private long maxFileSizeMb;
+
+    @Value("${audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.fsync:false}")
+    private boolean fsync;
+
+    private AuditRingBuffer buffer;
+    private AuditLogWriter writer;
+    private Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Audit logging disabled");
+            return;
+        }
+        buffer = new AuditRingBuffer(bufferSize);
+        writer = new AuditLogWriter(buffer, Paths.get(directory), batchSize,
+            maxFileSizeMb * 1024 * 1024, flushIntervalMs, fsync);
+        writerThread = new Thread(writer, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Audit logging enabled: directory={}, bufferSize={}", directory, buffer.capacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        logger.info("Audit log writer stopped: written={}, dropped={}", writer.writtenCount(), buffer.droppedCount());
+    }
+
+    /**
+     * Record an audit event for the transaction. Never blocks; if the buffer is
+     * full the event is dropped and counted.
+     */
+    public void record(AuditAction action, Transaction transaction) {
+        if (buffer == null || transaction == null) {
+            return;
+        }
+        buffer.offer(AuditEvent.of(action, transaction));
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    public long getDroppedCount() {
+        return buffer != null ? buffer.droppedCount() : 0;
+    }
+
+    public long getWrittenCount() {
+        return writer != null ? writer.writtenCount() : 0;
+    }
+
+    /**
+     * True while the background writer cannot write to the audit directory
+     */
+    public boolean isWriterFailing() {
+        return writer != null && writer.isFailing();
+    }
+
+    public String getLastWriteError() {
+        return writer != null ? writer.lastError() : null;
+    }
+}
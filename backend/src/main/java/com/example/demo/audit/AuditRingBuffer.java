@@ -0,0 +1,90 @@
+package com.example.demo.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free ring buffer: many producers, a single consumer.
+ *
+ * Each slot carries a sequence number. A producer claims a slot by CAS on the
+ * tail and publishes it by advancing the slot sequence; the consumer only
+ * reads slots whose sequence shows they are published. When the buffer is
+ * full, {@link #offer} drops the event instead of waiting, so request threads
+ * never block on audit I/O.
+ */
+class AuditRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Only touched by the consumer thread
+    private long head;
+
+    AuditRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an event; returns false (and counts a drop) when the buffer is full
+     */
+    boolean offer(AuditEvent event) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code max} published events into the sink. Consumer thread only.
+     */
+    int drainTo(List<AuditEvent> sink, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            sink.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+}
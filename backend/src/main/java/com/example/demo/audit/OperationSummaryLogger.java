@@ -0,0 +1,58 @@
+package com.example.demo.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces per-request INFO lines with a periodic summary. Request threads only
+ * bump striped counters; the summary is logged from the scheduler thread.
+ */
+@Component
+public class OperationSummaryLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationSummaryLogger.class);
+
+    private final ConcurrentHashMap<String, Counters> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Count one call of the operation and the number of rows it returned
+     */
+    public void record(String operation, long rows) {
+        Counters counters = operations.computeIfAbsent(operation, k -> new Counters());
+        counters.calls.increment();
+        counters.rows.add(rows);
+    }
+
+    public void recordFailure(String operation) {
+        operations.computeIfAbsent(operation, k -> new Counters()).failures.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${audit.summary-interval-ms:60000}")
+    public void logSummary() {
+        Map<String, String> summary = new TreeMap<>();
+        operations.forEach((operation, counters) -> {
+            long calls = counters.calls.sumThenReset();
+            long rows = counters.rows.sumThenReset();
+            long failures = counters.failures.sumThenReset();
+            if (calls > 0 || failures > 0) {
+                summary.put(operation, "calls=" + calls + " rows=" + rows + " failures=" + failures);
+            }
+        });
+        if (!summary.isEmpty()) {
+            logger.info("Request summary: {}", summary);
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.bulkimport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Command-line entry point for bulk imports:
+ * {@code java -jar app.jar --bulk-import.file=donations.csv --spring.main.web-application-type=none}.
+ * Runs the import once the context is up and, by default, shuts the
+ * application down afterwards with a non-zero exit code if the import was
+ * aborted.
+ */
+@Component
+@ConditionalOnProperty(name = "bulk-import.file")
+public class BulkImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    @Autowired
+    private BulkImporter bulkImporter;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${bulk-import.file}")
+    private String file;
+
+    @Value("${bulk-import.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode;
+        try {
+            ImportReport report = bulkImporter.importFile(Paths.get(file));
+            if (report.getRejected() > 0) {
+                logger.warn("{} rows rejected, see {}", report.getRejected(), report.getRejectsFile());
+            }
+            exitCode = report.isAborted() ? 1 : 0;
+        } catch (Exception e) {
+            logger.error("Bulk import of {} failed: {}", file, e.getMessage(), e);
+            exitCode = 1;
+        }
+        if (exitWhenDone) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
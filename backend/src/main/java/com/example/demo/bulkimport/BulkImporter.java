@@ -0,0 +1,323 @@
+package com.example.demo.bulkimport;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads historical transactions from a CSV file with a header row.
+ *
+ * The file is split at line boundaries into chunks, and each chunk is mapped
+ * into memory and parsed by its own worker. Rows go through the same
+ * validation and defaults as {@code POST /api/transactions} and are written in
+ * batches by a separate writer pool. A semaphore bounds the batches in flight,
+ * so parsers stall rather than pile up rows when the store falls behind.
+ *
+ * Rejected rows are reported with their line numbers in
+ * {@code <file>.rejects.csv}. The import stops early once
+ * {@code bulk-import.max-rejects} is exceeded.
+ */
+@Component
+public class BulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    private static final int SAMPLE_REJECTS = 100;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${bulk-import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${bulk-import.chunk-size-mb:64}")
+    private int chunkSizeMb;
+
+    @Value("${bulk-import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${bulk-import.max-in-flight-batches:4}")
+    private int maxInFlightBatches;
+
+    @Value("${bulk-import.max-rejects:10000}")
+    private int maxRejects;
+
+    public ImportReport importFile(Path file) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(MAX_HEADER_BYTES, size));
+            channel.read(head, 0);
+            int newline = indexOf(head, (byte) '\n');
+            if (newline < 0) {
+                throw new IllegalArgumentException("CSV file has no header line");
+            }
+            int headerEnd = newline > 0 && head.get(newline - 1) == '\r' ? newline - 1 : newline;
+            int[] columnOfField = CsvRowParser.mapHeader(new String(head.array(), 0, headerEnd, StandardCharsets.UTF_8));
+            List<long[]> chunks = split(channel, newline + 1, size, (long) chunkSizeMb * 1024 * 1024);
+            logger.info("Importing {}: bytes={}, chunks={}, parallelism={}, batchSize={}, maxInFlightBatches={}",
+                file, size, chunks.size(), workers, batchSize, maxInFlightBatches);
+
+            Run run = new Run(chunks.size());
+            ExecutorService parsers = Executors.newFixedThreadPool(workers, named("bulk-import-parser-"));
+            ExecutorService writers = Executors.newFixedThreadPool(maxInFlightBatches, named("bulk-import-writer-"));
+            try {
+                List<Future<?>> parsed = new ArrayList<>(chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    int chunk = i;
+                    parsed.add(parsers.submit(() -> {
+                        parseChunk(channel, chunk, chunks.get(chunk), columnOfField, run, writers);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : parsed) {
+                    future.get();
+                }
+                run.inFlight.acquire(maxInFlightBatches);
+            } catch (ExecutionException e) {
+                run.aborted.set(true);
+                throw new IllegalStateException("Bulk import of " + file + " failed", e.getCause());
+            } finally {
+                parsers.shutdownNow();
+                writers.shutdown();
+            }
+
+            Path rejectsFile = file.resolveSibling(file.getFileName() + ".rejects.csv");
+            List<ImportReject> rejects = run.resolveRejects();
+            writeRejects(rejectsFile, rejects);
+
+            ImportReport report = new ImportReport(file.toString(), size, run.rows.get(), run.imported.get(),
+                rejects.size(), System.currentTimeMillis() - start, run.aborted.get(),
+                rejects.isEmpty() ? null : rejectsFile.toString(),
+                new ArrayList<>(rejects.subList(0, Math.min(SAMPLE_REJECTS, rejects.size()))));
+            logger.info("Bulk import finished: {}", report);
+            return report;
+        }
+    }
+
+    private void parseChunk(FileChannel channel, int chunk, long[] range, int[] columnOfField,
+                            Run run, ExecutorService writers) throws IOException, InterruptedException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+        int end = buffer.limit();
+        CsvRowParser parser = new CsvRowParser(columnOfField);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        int[] batchLines = new int[batchSize];
+        int line = 0;
+        int pos = 0;
+
+        // After an abort keep counting lines so that earlier rejects in later
+        // chunks still resolve to the right line numbers
+        while (pos < end) {
+            int eol = pos;
+            while (eol < end && buffer.get(eol) != '\n') {
+                eol++;
+            }
+            int contentEnd = eol > pos && buffer.get(eol - 1) == '\r' ? eol - 1 : eol;
+            line++;
+            if (contentEnd > pos && !run.aborted.get()) {
+                run.rows.incrementAndGet();
+                Transaction transaction = parser.parse(buffer, pos, contentEnd);
+                if (transaction == null) {
+                    reject(run, chunk, line, parser.error());
+                } else {
+                    try {
+                        transactionService.validateTransaction(transaction);
+                        transactionService.applyDefaults(transaction);
+                        batchLines[batch.size()] = line;
+                        batch.add(transaction);
+                    } catch (IllegalArgumentException e) {
+                        reject(run, chunk, line, e.getMessage());
+                    }
+                }
+                if (batch.size() == batchSize) {
+                    submit(batch, batchLines, chunk, run, writers);
+                    batch = new ArrayList<>(batchSize);
+                    batchLines = new int[batchSize];
+                }
+            }
+            pos = eol + 1;
+        }
+        if (!batch.isEmpty() && !run.aborted.get()) {
+            submit(batch, batchLines, chunk, run, writers);
+        }
+        run.linesPerChunk[chunk] = line;
+    }
+
+    private void submit(List<Transaction> batch, int[] lines, int chunk, Run run, ExecutorService writers)
+            throws InterruptedException {
+        run.inFlight.acquire();
+        writers.execute(() -> {
+            try {
+                transactionService.saveImportedBatch(batch);
+                run.imported.addAndGet(batch.size());
+            } catch (Exception e) {
+                logger.warn("Bulk import batch failed: {}", e.getMessage());
+                for (int i = 0; i < batch.size(); i++) {
+                    reject(run, chunk, lines[i], "Write failed: " + e.getMessage());
+                }
+            } finally {
+                run.inFlight.release();
+            }
+        });
+    }
+
+    private void reject(Run run, int chunk, int line, String reason) {
+        run.rejects.add(new ChunkReject(chunk, line, reason));
+        if (run.rejectCount.incrementAndGet() > maxRejects && run.aborted.compareAndSet(false, true)) {
+            logger.warn("Bulk import aborted: more than {} rejected rows", maxRejects);
+        }
+    }
+
+    /**
+     * Split {@code [dataStart, size)} into chunks of roughly {@code chunkSize}
+     * bytes, each starting at the beginning of a line
+     *
+     * @return {@code [start, end)} byte ranges
+     */
+    static List<long[]> split(FileChannel channel, long dataStart, long size, long chunkSize) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = Math.min(dataStart, size);
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // Move the cut forward to just past the next newline
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += Math.max(read, 0);
+                if (read <= 0) {
+                    end = size;
+                }
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("CSV line near byte " + start + " is too long to import");
+            }
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte b) {
+        for (int i = 0; i < buffer.position(); i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeRejects(Path file, List<ImportReject> rejects) throws IOException {
+        if (rejects.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("line,reason\n");
+            for (ImportReject reject : rejects) {
+                writer.write(Long.toString(reject.getLine()));
+                writer.write(",\"");
+                writer.write(reject.getReason() != null ? reject.getReason().replace("\"", "\"\"") : "");
+                writer.write("\"\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write rejects to " + file, e);
+        }
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A rejected row located by chunk and line within the chunk; the absolute
+     * line number is known only once every chunk has been counted
+     */
+    private static final class ChunkReject {
+        final int chunk;
+        final int line;
+        final String reason;
+
+        ChunkReject(int chunk, int line, String reason) {
+            this.chunk = chunk;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    private final class Run {
+        final int[] linesPerChunk;
+        final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicInteger rejectCount = new AtomicInteger();
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final Queue<ChunkReject> rejects = new ConcurrentLinkedQueue<>();
+
+        Run(int chunks) {
+            this.linesPerChunk = new int[chunks];
+        }
+
+        List<ImportReject> resolveRejects() {
+            long[] firstLine = new long[linesPerChunk.length];
+            long line = 2; // line 1 is the header
+            for (int i = 0; i < linesPerChunk.length; i++) {
+                firstLine[i] = line;
+                line += linesPerChunk[i];
+            }
+            List<ImportReject> resolved = new ArrayList<>(rejects.size());
+            for (ChunkReject reject : rejects) {
+                resolved.add(new ImportReject(firstLine[reject.chunk] + reject.line - 1, reject.reason));
+            }
+            resolved.sort(Comparator.comparingLong(ImportReject::getLine));
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.demo.bulkimport;
+
+import com.example.demo.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Parses one CSV line straight out of a mapped file into a {@link Transaction}.
+ * Field bytes are copied into a reusable scratch array; amounts and
+ * timestamps are parsed from those bytes without an intermediate String.
+ *
+ * Fields may be quoted with {@code "} and quotes escaped by doubling them. A
+ * record must fit on one line, because the file is split for parallel parsing
+ * at line boundaries. One instance per worker; not thread-safe.
+ */
+final class CsvRowParser {
+
+    static final String[] COLUMNS = {
+        "id", "charityId", "donorName", "amount", "paymentMethod", "status",
+        "message", "description", "transactionHash", "createdAt", "updatedAt"
+    };
+    private static final String[] REQUIRED = { "charityId", "donorName", "amount", "paymentMethod" };
+
+    private static final int ID = 0;
+    private static final int CHARITY_ID = 1;
+    private static final int DONOR_NAME = 2;
+    private static final int AMOUNT = 3;
+    private static final int PAYMENT_METHOD = 4;
+    private static final int STATUS = 5;
+    private static final int MESSAGE = 6;
+    private static final int DESCRIPTION = 7;
+    private static final int TRANSACTION_HASH = 8;
+    private static final int CREATED_AT = 9;
+    private static final int UPDATED_AT = 10;
+
+    /** Longest unscaled value that always fits in a long */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private final int[] columnOfField;
+    private byte[] scratch = new byte[256];
+    private int length;
+    private String error;
+
+    CsvRowParser(int[] columnOfField) {
+        this.columnOfField = columnOfField;
+    }
+
+    /**
+     * Map each header field to a known column, ignoring unknown ones. Names
+     * match case-insensitively with or without underscores.
+     *
+     * @return column index per header field, -1 for ignored fields
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    static int[] mapHeader(String header) {
+        String[] fields = header.split(",", -1);
+        int[] columnOfField = new int[fields.length];
+        boolean[] present = new boolean[COLUMNS.length];
+        for (int f = 0; f < fields.length; f++) {
+            String name = normalize(fields[f]);
+            columnOfField[f] = -1;
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (normalize(COLUMNS[c]).equals(name)) {
+                    columnOfField[f] = c;
+                    present[c] = true;
+                }
+            }
+        }
+        for (String required : REQUIRED) {
+            if (!present[Arrays.asList(COLUMNS).indexOf(required)]) {
+                throw new IllegalArgumentException("CSV header is missing required column " + required);
+            }
+        }
+        return columnOfField;
+    }
+
+    /**
+     * @return the parsed transaction, or null if the line is malformed; see {@link #error()}
+     */
+    Transaction parse(ByteBuffer buffer, int start, int end) {
+        Transaction t = new Transaction();
+        int pos = start;
+        int field = 0;
+        while (true) {
+            pos = readField(buffer, pos, end);
+            if (pos < 0) {
+                return null;
+            }
+            if (field < columnOfField.length && columnOfField[field] >= 0 && length > 0
+                    && !assign(t, columnOfField[field])) {
+                return null;
+            }
+            field++;
+            if (pos >= end) {
+                break;
+            }
+            pos++; // the comma
+        }
+        if (field != columnOfField.length) {
+            error = "Expected " + columnOfField.length + " fields, found " + field;
+            return null;
+        }
+        return t;
+    }
+
+    String error() {
+        return error;
+    }
+
+    /**
+     * Copy the field starting at {@code pos} into scratch, unquoting it
+     *
+     * @return position of the delimiter after the field, or -1 if malformed
+     */
+    private int readField(ByteBuffer buffer, int pos, int end) {
+        length = 0;
+        if (pos < end && buffer.get(pos) == '"') {
+            pos++;
+            while (true) {
+                if (pos >= end) {
+                    error = "Unterminated quoted field";
+                    return -1;
+                }
+                byte b = buffer.get(pos++);
+                if (b == '"') {
+                    if (pos < end && buffer.get(pos) == '"') {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                append(b);
+            }
+            if (pos < end && buffer.get(pos) != ',') {
+                error = "Unexpected character after quoted field";
+                return -1;
+            }
+            return pos;
+        }
+        int fieldEnd = pos;
+        while (fieldEnd < end && buffer.get(fieldEnd) != ',') {
+            fieldEnd++;
+        }
+        length = fieldEnd - pos;
+        ensureCapacity(length);
+        buffer.get(pos, scratch, 0, length);
+        return fieldEnd;
+    }
+
+    private boolean assign(Transaction t, int column) {
+        switch (column) {
+            case ID: t.setId(text()); return true;
+            case CHARITY_ID: t.setCharityId(text()); return true;
+            case DONOR_NAME: t.setDonorName(text()); return true;
+            case PAYMENT_METHOD: t.setPaymentMethod(text()); return true;
+            case STATUS: t.setStatus(text()); return true;
+            case MESSAGE: t.setMessage(text()); return true;
+            case DESCRIPTION: t.setDescription(text()); return true;
+            case TRANSACTION_HASH: t.setTransactionHash(text()); return true;
+            case AMOUNT:
+                t.setAmount(amount());
+                return t.getAmount() != null;
+            case CREATED_AT:
+                t.setCreatedAt(dateTime("createdAt"));
+                return t.getCreatedAt() != null;
+            case UPDATED_AT:
+                t.setUpdatedAt(dateTime("updatedAt"));
+                return t.getUpdatedAt() != null;
+            default:
+                return true;
+        }
+    }
+
+    private String text() {
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse a plain decimal such as {@code -12.50} directly from the bytes
+     */
+    private BigDecimal amount() {
+        int i = 0;
+        boolean negative = false;
+        if (scratch[0] == '-' || scratch[0] == '+') {
+            negative = scratch[0] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < length; i++) {
+            byte b = scratch[i];
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                error = "Invalid amount '" + text() + "'";
+                return null;
+            }
+        }
+        if (digits == 0) {
+            error = "Invalid amount '" + text() + "'";
+            return null;
+        }
+        if (digits > MAX_FAST_DIGITS) {
+            return new BigDecimal(text());
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * Parse {@code yyyy-MM-ddTHH:mm:ss[.fraction]} (a space may replace the T);
+     * anything else falls back to {@link LocalDateTime#parse}
+     */
+    private LocalDateTime dateTime(String column) {
+        if (length >= 19 && scratch[4] == '-' && scratch[7] == '-'
+                && (scratch[10] == 'T' || scratch[10] == ' ') && scratch[13] == ':' && scratch[16] == ':') {
+            int year = digits(0, 4);
+            int month = digits(5, 2);
+            int day = digits(8, 2);
+            int hour = digits(11, 2);
+            int minute = digits(14, 2);
+            int second = digits(17, 2);
+            int nanos = 0;
+            boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0;
+            if (valid && length > 19) {
+                int fractionDigits = length - 20;
+                valid = scratch[19] == '.' && fractionDigits >= 1 && fractionDigits <= 9;
+                if (valid) {
+                    nanos = digits(20, fractionDigits);
+                    for (int i = fractionDigits; i < 9; i++) {
+                        nanos *= 10;
+                    }
+                    valid = nanos >= 0;
+                }
+            }
+            if (valid) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+                } catch (DateTimeException e) {
+                    error = "Invalid " + column + " '" + text() + "'";
+                    return null;
+                }
+            }
+        }
+        try {
+            return LocalDateTime.parse(text());
+        } catch (DateTimeParseException e) {
+            error = "Invalid " + column + " '" + text() + "'";
+            return null;
+        }
+    }
+
+    private int digits(int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int d = scratch[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(length + 1);
+        scratch[length++] = b;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length * 2));
+        }
+    }
+
+    private static String normalize(String name) {
+        String trimmed = name.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.bulkimport;
+
+/**
+ * A CSV row that was not imported, by 1-based line number in the file
+ */
+public final class ImportReject {
+
+    private final long line;
+    private final String reason;
+
+    public ImportReject(long line, String reason) {
+        this.line = line;
+        this.reason = reason;
+    }
+
+    public long getLine() { return line; }
+    public String getReason() { return reason; }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.bulkimport;
+
+import java.util.List;
+
+/**
+ * Outcome of one bulk import. Every rejected row is written to
+ * {@link #getRejectsFile()}; {@link #getSampleRejects()} holds the first few.
+ */
+public final class ImportReport {
+
+    private final String file;
+    private final long bytes;
+    private final long rows;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final boolean aborted;
+    private final String rejectsFile;
+    private final List<ImportReject> sampleRejects;
+
+    ImportReport(String file, long bytes, long rows, long imported, long rejected, long elapsedMillis,
+                 boolean aborted, String rejectsFile, List<ImportReject> sampleRejects) {
+        this.file = file;
+        this.bytes = bytes;
+        this.rows = rows;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.aborted = aborted;
+        this.rejectsFile = rejectsFile;
+        this.sampleRejects = sampleRejects;
+    }
+
+    public String getFile() { return file; }
+    public long getBytes() { return bytes; }
+    public long getRows() { return rows; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * True if the import stopped early because too many rows were rejected
+     */
+    public boolean isAborted() { return aborted; }
+    public String getRejectsFile() { return rejectsFile; }
+    public List<ImportReject> getSampleRejects() { return sampleRejects; }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? rows * 1000 / elapsedMillis : rows;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedMillis > 0 ? bytes / 1048576.0 * 1000 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("file=%s, rows=%d, imported=%d, rejected=%d, aborted=%s, took=%dms, rowsPerSecond=%d, MBps=%.1f",
+            file, rows, imported, rejected, aborted, elapsedMillis, getRowsPerSecond(), getMegabytesPerSecond());
+    }
+}
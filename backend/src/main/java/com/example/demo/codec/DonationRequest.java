@@ -0,0 +1,27 @@
+package com.example.demo.codec;
+
+import com.example.demo.entity.Transaction;
+
+import java.util.Map;
+
+/**
+ * A decoded {@code POST /api/transactions} body: either a transaction that
+ * passed validation, or the problems found, keyed by field name.
+ */
+public final class DonationRequest {
+
+    private final Transaction transaction;
+    private final Map<String, String> errors;
+
+    DonationRequest(Transaction transaction, Map<String, String> errors) {
+        this.transaction = transaction;
+        this.errors = errors;
+    }
+
+    public Transaction getTransaction() { return transaction; }
+    public Map<String, String> getErrors() { return errors; }
+
+    public boolean hasErrors() {
+        return errors != null;
+    }
+}
@@ -0,0 +1,491 @@
+package com.example.demo.codec;
+
+import com.example.demo.entity.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single-pass decoder for the donation payload of {@code POST /api/transactions}.
+ *
+ * The body is read into a per-thread buffer and scanned once. Field names are
+ * matched as bytes, the amount is parsed from its digits straight into minor
+ * units, and every rule of {@code TransactionService.validateTransaction} is
+ * checked as fields are read, with one message collected per offending field.
+ * A valid request allocates only the {@link Transaction}, its field values and
+ * the amount. Unknown fields are skipped, as with Jackson binding.
+ */
+@Component
+public class DonationRequestDecoder {
+
+    /** Amounts are accepted with at most this many decimal places */
+    public static final int AMOUNT_SCALE = 2;
+
+    static final int MAX_BODY_BYTES = 64 * 1024;
+
+    static final int MAX_DEPTH = 32;
+
+    /** Largest amount in minor units, the same bound as TransactionService.MAX_AMOUNT; checked per digit and again after scaling */
+    private static final long MAX_UNSCALED = Long.MAX_VALUE / 1000;
+
+    private static final String[] FIELDS = {
+        "id", "charityId", "donorName", "amount", "paymentMethod", "status",
+        "message", "description", "transactionHash", "createdAt", "updatedAt"
+    };
+    private static final byte[][] FIELD_BYTES = new byte[FIELDS.length][];
+    static {
+        for (int i = 0; i < FIELDS.length; i++) {
+            FIELD_BYTES[i] = FIELDS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final int ID = 0;
+    private static final int CHARITY_ID = 1;
+    private static final int DONOR_NAME = 2;
+    private static final int AMOUNT = 3;
+    private static final int PAYMENT_METHOD = 4;
+    private static final int STATUS = 5;
+    private static final int MESSAGE = 6;
+    private static final int DESCRIPTION = 7;
+    private static final int TRANSACTION_HASH = 8;
+    private static final int CREATED_AT = 9;
+    private static final int UPDATED_AT = 10;
+
+    private static final ThreadLocal<Scanner> SCANNERS = ThreadLocal.withInitial(Scanner::new);
+
+    public DonationRequest decode(InputStream body) throws IOException {
+        Scanner scanner = SCANNERS.get();
+        if (!scanner.fill(body)) {
+            return failed("body", "must not exceed " + MAX_BODY_BYTES + " bytes");
+        }
+        try {
+            return scanner.decode();
+        } catch (MalformedJsonException e) {
+            return failed("body", "malformed JSON at offset " + e.offset + ": " + e.getMessage());
+        }
+    }
+
+    private static DonationRequest failed(String field, String message) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        errors.put(field, message);
+        return new DonationRequest(null, errors);
+    }
+
+    /**
+     * Per-thread body buffer and cursor
+     */
+    private static final class Scanner {
+
+        private byte[] buf = new byte[4096];
+        private int len;
+        private int pos;
+
+        // Bounds of the last string read
+        private int strStart;
+        private int strEnd;
+        private boolean strEscaped;
+
+        private Map<String, String> errors;
+
+        boolean fill(InputStream body) throws IOException {
+            len = 0;
+            int n;
+            while ((n = body.read(buf, len, buf.length - len)) > 0) {
+                len += n;
+                if (len == buf.length) {
+                    if (buf.length >= MAX_BODY_BYTES) {
+                        return body.read() < 0;
+                    }
+                    buf = Arrays.copyOf(buf, Math.min(buf.length * 2, MAX_BODY_BYTES));
+                }
+            }
+            return true;
+        }
+
+        DonationRequest decode() {
+            pos = 0;
+            errors = null;
+            Transaction t = new Transaction();
+
+            skipWhitespace();
+            if (pos >= len || buf[pos] != '{') {
+                return failed("body", "must be a JSON object");
+            }
+            pos++;
+            skipWhitespace();
+            if (peek() != '}') {
+                while (true) {
+                    expect('"');
+                    int field = readFieldName();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    readValue(t, field);
+                    skipWhitespace();
+                    if (peek() == ',') {
+                        pos++;
+                        skipWhitespace();
+                        continue;
+                    }
+                    break;
+                }
+            }
+            expect('}');
+            skipWhitespace();
+            if (pos < len) {
+                throw new MalformedJsonException(pos, "unexpected content after the object");
+            }
+
+            // Required fields that were absent, in the order validateTransaction checks them
+            requirePresent("amount", t.getAmount());
+            requirePresent("charityId", t.getCharityId());
+            requirePresent("donorName", t.getDonorName());
+            requirePresent("paymentMethod", t.getPaymentMethod());
+
+            Map<String, String> result = errors;
+            errors = null;
+            return result == null ? new DonationRequest(t, null) : new DonationRequest(null, result);
+        }
+
+        /**
+         * @return index into FIELDS, or -1 for a field the decoder ignores
+         */
+        private int readFieldName() {
+            readString();
+            if (strEscaped) {
+                return Arrays.asList(FIELDS).indexOf(decodeString());
+            }
+            int length = strEnd - strStart;
+            for (int f = 0; f < FIELD_BYTES.length; f++) {
+                byte[] name = FIELD_BYTES[f];
+                if (name.length == length && Arrays.equals(buf, strStart, strEnd, name, 0, length)) {
+                    return f;
+                }
+            }
+            return -1;
+        }
+
+        private void readValue(Transaction t, int field) {
+            switch (field) {
+                case ID: t.setId(optionalString(field)); break;
+                case CHARITY_ID: t.setCharityId(requiredString(field)); break;
+                case DONOR_NAME: t.setDonorName(requiredString(field)); break;
+                case PAYMENT_METHOD: t.setPaymentMethod(requiredString(field)); break;
+                case STATUS: t.setStatus(optionalString(field)); break;
+                case MESSAGE: t.setMessage(optionalString(field)); break;
+                case DESCRIPTION: t.setDescription(optionalString(field)); break;
+                case TRANSACTION_HASH: t.setTransactionHash(optionalString(field)); break;
+                case AMOUNT: t.setAmount(amount()); break;
+                case CREATED_AT: t.setCreatedAt(dateTime(field)); break;
+                case UPDATED_AT: t.setUpdatedAt(dateTime(field)); break;
+                default: skipValue(0);
+            }
+        }
+
+        private String optionalString(int field) {
+            if (consumeNull()) {
+                return null;
+            }
+            if (peek() != '"') {
+                skipValue(0);
+                error(field, "must be a string");
+                return null;
+            }
+            pos++;
+            readString();
+            return decodeString();
+        }
+
+        private String requiredString(int field) {
+            String value = optionalString(field);
+            if (value != null && value.isBlank()) {
+                error(field, "must not be blank");
+                return null;
+            }
+            return value;
+        }
+
+        /**
+         * Parse a plain decimal number, or a string holding one, into minor units
+         */
+        private BigDecimal amount() {
+            if (consumeNull()) {
+                return null;
+            }
+            int start;
+            int end;
+            if (peek() == '"') {
+                pos++;
+                readString();
+                start = strStart;
+                end = strEnd;
+            } else if (peek() == '-' || (peek() >= '0' && peek() <= '9')) {
+                start = pos;
+                while (pos < len && isNumberByte(buf[pos])) {
+                    pos++;
+                }
+                end = pos;
+            } else {
+                skipValue(0);
+                error(AMOUNT, "must be a number");
+                return null;
+            }
+
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+                negative = buf[i] == '-';
+                i++;
+            }
+            long minor = 0;
+            int decimals = -1;
+            boolean sawDigit = false;
+            for (; i < end; i++) {
+                byte b = buf[i];
+                if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else if (b >= '0' && b <= '9') {
+                    sawDigit = true;
+                    if (decimals >= AMOUNT_SCALE) {
+                        if (b != '0') {
+                            error(AMOUNT, "must have at most " + AMOUNT_SCALE + " decimal places");
+                            return null;
+                        }
+                        continue;
+                    }
+                    minor = minor * 10 + (b - '0');
+                    if (minor > MAX_UNSCALED) {
+                        error(AMOUNT, "is too large");
+                        return null;
+                    }
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else {
+                    error(AMOUNT, "must be a plain decimal number");
+                    return null;
+                }
+            }
+            if (!sawDigit) {
+                error(AMOUNT, "must be a plain decimal number");
+                return null;
+            }
+            // Digits so far are within the bound, so scaling by 100 cannot overflow
+            for (int d = Math.max(decimals, 0); d < AMOUNT_SCALE; d++) {
+                minor *= 10;
+            }
+            if (minor > MAX_UNSCALED) {
+                error(AMOUNT, "is too large");
+                return null;
+            }
+            if (negative || minor == 0) {
+                error(AMOUNT, "must be greater than zero");
+                return null;
+            }
+            return BigDecimal.valueOf(minor, AMOUNT_SCALE);
+        }
+
+        private LocalDateTime dateTime(int field) {
+            String value = optionalString(field);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                error(field, "must be an ISO-8601 date-time string");
+                return null;
+            }
+        }
+
+        /**
+         * Scan a string whose opening quote has been consumed, recording its bounds
+         */
+        private void readString() {
+            strStart = pos;
+            strEscaped = false;
+            while (pos < len) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    strEnd = pos++;
+                    return;
+                }
+                if (b == '\\') {
+                    strEscaped = true;
+                    pos++;
+                } else if (b >= 0 && b < 0x20) {
+                    throw new MalformedJsonException(pos, "control character in string");
+                }
+                pos++;
+            }
+            throw new MalformedJsonException(pos, "unterminated string");
+        }
+
+        private String decodeString() {
+            if (!strEscaped) {
+                return new String(buf, strStart, strEnd - strStart, StandardCharsets.UTF_8);
+            }
+            StringBuilder sb = new StringBuilder(strEnd - strStart);
+            int run = strStart;
+            for (int i = strStart; i < strEnd; i++) {
+                if (buf[i] != '\\') {
+                    continue;
+                }
+                sb.append(new String(buf, run, i - run, StandardCharsets.UTF_8));
+                byte e = buf[++i];
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (i + 4 >= strEnd) {
+                            throw new MalformedJsonException(i, "truncated unicode escape");
+                        }
+                        int c = 0;
+                        for (int k = 1; k <= 4; k++) {
+                            int digit = Character.digit(buf[i + k], 16);
+                            if (digit < 0) {
+                                throw new MalformedJsonException(i + k, "invalid unicode escape");
+                            }
+                            c = c * 16 + digit;
+                        }
+                        sb.append((char) c);
+                        i += 4;
+                        break;
+                    default:
+                        throw new MalformedJsonException(i, "invalid escape");
+                }
+                run = i + 1;
+            }
+            sb.append(new String(buf, run, strEnd - run, StandardCharsets.UTF_8));
+            return sb.toString();
+        }
+
+        private void skipValue(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new MalformedJsonException(pos, "nested too deeply");
+            }
+            byte b = peek();
+            if (b == '"') {
+                pos++;
+                readString();
+            } else if (b == '{' || b == '[') {
+                char close = b == '{' ? '}' : ']';
+                pos++;
+                skipWhitespace();
+                if (peek() == close) {
+                    pos++;
+                    return;
+                }
+                while (true) {
+                    if (close == '}') {
+                        expect('"');
+                        readString();
+                        skipWhitespace();
+                        expect(':');
+                        skipWhitespace();
+                    }
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    if (peek() == ',') {
+                        pos++;
+                        skipWhitespace();
+                        continue;
+                    }
+                    expect(close);
+                    return;
+                }
+            } else if (b == '-' || (b >= '0' && b <= '9')) {
+                while (pos < len && isNumberByte(buf[pos])) {
+                    pos++;
+                }
+            } else if (!consumeLiteral("true") && !consumeLiteral("false") && !consumeNull()) {
+                throw new MalformedJsonException(pos, "expected a value");
+            }
+        }
+
+        private boolean consumeNull() {
+            return consumeLiteral("null");
+        }
+
+        private boolean consumeLiteral(String literal) {
+            int n = literal.length();
+            if (pos + n > len) {
+                return false;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += n;
+            return true;
+        }
+
+        private void expect(char c) {
+            if (pos >= len || buf[pos] != c) {
+                throw new MalformedJsonException(pos, "expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            if (pos >= len) {
+                throw new MalformedJsonException(pos, "unexpected end of input");
+            }
+            return buf[pos];
+        }
+
+        private void skipWhitespace() {
+            while (pos < len && (buf[pos] == ' ' || buf[pos] == '\n' || buf[pos] == '\r' || buf[pos] == '\t')) {
+                pos++;
+            }
+        }
+
+        private void requirePresent(String field, Object value) {
+            if (value == null && (errors == null || !errors.containsKey(field))) {
+                error(field, "is required");
+            }
+        }
+
+        private void error(int field, String message) {
+            error(FIELDS[field], message);
+        }
+
+        private void error(String field, String message) {
+            if (errors == null) {
+                errors = new LinkedHashMap<>();
+            }
+            errors.putIfAbsent(field, message);
+        }
+
+        private static boolean isNumberByte(byte b) {
+            return (b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+' || b == 'e' || b == 'E';
+        }
+    }
+
+    /**
+     * Structural error in the body; carries the byte offset for the report
+     */
+    private static final class MalformedJsonException extends RuntimeException {
+        final int offset;
+
+        MalformedJsonException(int offset, String message) {
+            super(message, null, false, false);
+            this.offset = offset;
+        }
+    }
+}
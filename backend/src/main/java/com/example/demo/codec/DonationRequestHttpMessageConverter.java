@@ -0,0 +1,47 @@
+package com.example.demo.codec;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link DonationRequest} bodies with the streaming
+ * {@link DonationRequestDecoder} instead of Jackson data binding. Validation
+ * problems are carried in the result rather than thrown, so the controller can
+ * report them per field.
+ */
+public class DonationRequestHttpMessageConverter extends AbstractHttpMessageConverter<DonationRequest> {
+
+    private final DonationRequestDecoder decoder;
+
+    public DonationRequestHttpMessageConverter(DonationRequestDecoder decoder) {
+        super(MediaType.APPLICATION_JSON);
+        this.decoder = decoder;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DonationRequest.class == clazz;
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        // Request-only type
+        return false;
+    }
+
+    @Override
+    protected DonationRequest readInternal(Class<? extends DonationRequest> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        return decoder.decode(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(DonationRequest request, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("DonationRequest is read-only");
+    }
+}
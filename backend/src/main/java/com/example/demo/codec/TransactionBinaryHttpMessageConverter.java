@@ -0,0 +1,48 @@
+package com.example.demo.codec;
+
+import com.example.demo.controller.TransactionController.ApiResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link ApiResponse} bodies as CBOR or Smile when the client asks for
+ * them in the Accept header. JSON stays the default for everything else.
+ */
+public class TransactionBinaryHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    private final TransactionCodec codec;
+
+    public TransactionBinaryHttpMessageConverter(TransactionCodec codec) {
+        super(MediaType.APPLICATION_CBOR, TransactionCodec.APPLICATION_SMILE);
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        // Response-only format; request bodies are still accepted as JSON
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Binary transaction encoding is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        codec.writeResponse(response, outputMessage.getBody(), outputMessage.getHeaders().getContentType());
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.demo.codec;
+
+import com.example.demo.controller.TransactionController.ApiResponse;
+import com.example.demo.entity.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of transaction responses (CBOR or Smile).
+ *
+ * Transactions are written as positional rows against a schema header that is
+ * sent once per response, so field names are not repeated for every row.
+ * Amounts use the format's native decimal encoding and timestamps are written
+ * as epoch milliseconds (UTC), which avoids the text formatting done by the
+ * JSON path.
+ */
+@Component
+public class TransactionCodec {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    static final String TYPE_TRANSACTIONS = "transactions";
+    static final String TYPE_TRANSACTION = "transaction";
+    static final String TYPE_OBJECT = "object";
+
+    // Row layout, in order. Changing this requires bumping SCHEMA_VERSION.
+    static final int SCHEMA_VERSION = 1;
+    static final String[] FIELDS = {
+        "id", "charityId", "donorName", "amount", "paymentMethod", "status",
+        "message", "description", "transactionHash", "createdAt", "updatedAt"
+    };
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public TransactionCodec() {
+        this.cborMapper = new ObjectMapper(new CBORFactory());
+        this.cborMapper.registerModule(new JavaTimeModule());
+
+        SmileFactory smileFactory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        this.smileMapper = new ObjectMapper(smileFactory);
+        this.smileMapper.registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Check whether the media type is one of the binary formats handled here
+     */
+    public boolean supports(MediaType mediaType) {
+        return mediaType != null
+            && (MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType)
+                || APPLICATION_SMILE.isCompatibleWith(mediaType));
+    }
+
+    /**
+     * Stream an API response to the output in the requested binary format
+     */
+    public void writeResponse(ApiResponse<?> response, OutputStream out, MediaType mediaType) throws IOException {
+        try (JsonGenerator gen = mapperFor(mediaType).getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("success", response.isSuccess());
+            if (response.getMessage() != null) {
+                gen.writeStringField("message", response.getMessage());
+            }
+            gen.writeNumberField("timestamp", response.getTimestamp());
+            if (Boolean.TRUE.equals(response.getStale())) {
+                gen.writeBooleanField("stale", true);
+            }
+            if (response.getErrors() != null) {
+                gen.writeFieldName("errors");
+                gen.writeStartObject(response.getErrors(), response.getErrors().size());
+                for (Map.Entry<String, String> error : response.getErrors().entrySet()) {
+                    gen.writeStringField(error.getKey(), error.getValue());
+                }
+                gen.writeEndObject();
+            }
+
+            Object data = response.getData();
+            if (data instanceof Transaction) {
+                writeSchema(gen);
+                gen.writeStringField("type", TYPE_TRANSACTION);
+                gen.writeFieldName("data");
+                writeRow(gen, (Transaction) data);
+            } else if (data instanceof Collection<?> && isTransactionCollection((Collection<?>) data)) {
+                writeSchema(gen);
+                gen.writeStringField("type", TYPE_TRANSACTIONS);
+                gen.writeFieldName("data");
+                Collection<?> rows = (Collection<?>) data;
+                gen.writeStartArray(rows, rows.size());
+                for (Object row : rows) {
+                    writeRow(gen, (Transaction) row);
+                }
+                gen.writeEndArray();
+            } else if (data != null) {
+                gen.writeStringField("type", TYPE_OBJECT);
+                gen.writeFieldName("data");
+                gen.writeObject(data);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Decode the transaction rows from a response produced by {@link #writeResponse}
+     */
+    public List<Transaction> readTransactions(InputStream in, MediaType mediaType) throws IOException {
+        return readResponse(in, mediaType).getData();
+    }
+
+    /**
+     * Decode a response produced by {@link #writeResponse}: the envelope
+     * fields, any per-field errors, and the transaction rows (empty when the
+     * data is not transactions)
+     */
+    public ApiResponse<List<Transaction>> readResponse(InputStream in, MediaType mediaType) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        ApiResponse<List<Transaction>> response = new ApiResponse<>(false, null, transactions);
+        try (JsonParser parser = mapperFor(mediaType).getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected response object");
+            }
+            String type = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "success":
+                        response.setSuccess(parser.getBooleanValue());
+                        break;
+                    case "message":
+                        response.setMessage(parser.getText());
+                        break;
+                    case "timestamp":
+                        response.setTimestamp(parser.getLongValue());
+                        break;
+                    case "stale":
+                        response.setStale(parser.getBooleanValue());
+                        break;
+                    case "errors":
+                        response.setErrors(readErrors(parser));
+                        break;
+                    case "schema":
+                        readSchema(parser);
+                        break;
+                    case "type":
+                        type = parser.getText();
+                        break;
+                    case "data":
+                        if (TYPE_TRANSACTIONS.equals(type)) {
+                            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                                transactions.add(readRow(parser));
+                            }
+                        } else if (TYPE_TRANSACTION.equals(type)) {
+                            transactions.add(readRow(parser));
+                        } else {
+                            parser.skipChildren();
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new IOException("Truncated response");
+            }
+        }
+        return response;
+    }
+
+    private static Map<String, String> readErrors(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected errors object");
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            errors.put(field, parser.getText());
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IOException("Truncated errors");
+        }
+        return errors;
+    }
+
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        if (mediaType != null && APPLICATION_SMILE.isCompatibleWith(mediaType)) {
+            return smileMapper;
+        }
+        return cborMapper;
+    }
+
+    private boolean isTransactionCollection(Collection<?> data) {
+        for (Object row : data) {
+            if (!(row instanceof Transaction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeSchema(JsonGenerator gen) throws IOException {
+        gen.writeFieldName("schema");
+        gen.writeStartArray(FIELDS, FIELDS.length + 1);
+        gen.writeNumber(SCHEMA_VERSION);
+        for (String field : FIELDS) {
+            gen.writeString(field);
+        }
+        gen.writeEndArray();
+    }
+
+    private void readSchema(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT || parser.getIntValue() != SCHEMA_VERSION) {
+            throw new IOException("Unsupported transaction schema version");
+        }
+        // Field names follow the version; rows are positional, so they are only skipped
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Truncated transaction schema");
+            }
+        }
+    }
+
+    private void writeRow(JsonGenerator gen, Transaction t) throws IOException {
+        gen.writeStartArray(t, FIELDS.length);
+        writeString(gen, t.getId());
+        writeString(gen, t.getCharityId());
+        writeString(gen, t.getDonorName());
+        if (t.getAmount() != null) {
+            gen.writeNumber(t.getAmount());
+        } else {
+            gen.writeNull();
+        }
+        writeString(gen, t.getPaymentMethod());
+        writeString(gen, t.getStatus());
+        writeString(gen, t.getMessage());
+        writeString(gen, t.getDescription());
+        writeString(gen, t.getTransactionHash());
+        writeTimestamp(gen, t.getCreatedAt());
+        writeTimestamp(gen, t.getUpdatedAt());
+        gen.writeEndArray();
+    }
+
+    private Transaction readRow(JsonParser parser) throws IOException {
+        Transaction t = new Transaction();
+        t.setId(nextString(parser));
+        t.setCharityId(nextString(parser));
+        t.setDonorName(nextString(parser));
+        t.setAmount(parser.nextToken() == JsonToken.VALUE_NULL ? null : parser.getDecimalValue());
+        t.setPaymentMethod(nextString(parser));
+        t.setStatus(nextString(parser));
+        t.setMessage(nextString(parser));
+        t.setDescription(nextString(parser));
+        t.setTransactionHash(nextString(parser));
+        t.setCreatedAt(nextTimestamp(parser));
+        t.setUpdatedAt(nextTimestamp(parser));
+        // Tolerate trailing columns added by newer writers
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        return t;
+    }
+
+    private static void writeString(JsonGenerator gen, String value) throws IOException {
+        if (value != null) {
+            gen.writeString(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value != null) {
+            gen.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static String nextString(JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    private static LocalDateTime nextTimestamp(JsonParser parser) throws IOException {
+        if (parser.nextToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        long epochMillis = parser.getLongValue();
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(epochMillis, 1000L),
+            (int) Math.floorMod(epochMillis, 1000L) * 1_000_000,
+            ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import com.example.demo.codec.DonationRequestDecoder;
+import com.example.demo.codec.DonationRequestHttpMessageConverter;
+import com.example.demo.codec.TransactionBinaryHttpMessageConverter;
+import com.example.demo.codec.TransactionCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private TransactionCodec transactionCodec;
+
+    @Autowired
+    private DonationRequestDecoder donationRequestDecoder;
+
+    /**
+     * Register the compact binary converter right after the JSON converter so
+     * JSON stays the default and the generic Jackson CBOR/Smile converters are
+     * not picked for transaction responses. The donation request converter goes
+     * in front of the JSON converter so create requests skip Jackson data binding.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int index = converters.size();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                index = i + 1;
+                break;
+            }
+        }
+        converters.add(index, new TransactionBinaryHttpMessageConverter(transactionCodec));
+        converters.add(Math.max(index - 1, 0), new DonationRequestHttpMessageConverter(donationRequestDecoder));
+    }
+}
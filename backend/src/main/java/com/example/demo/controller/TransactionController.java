@@ -1,9 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.audit.OperationSummaryLogger;
+import com.example.demo.codec.DonationRequest;
+import com.example.demo.codec.TransactionCodec;
 import com.example.demo.entity.Transaction;
+import com.example.demo.leaderboard.DonorLeaderboards;
+import com.example.demo.leaderboard.LeaderboardEntry;
+import com.example.demo.resilience.DependencyUnavailableException;
 import com.example.demo.service.TransactionService;
+import com.example.demo.timeseries.TimeSeries;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,10 +20,13 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -29,11 +41,15 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
-    @GetMapping
+    @Autowired
+    private OperationSummaryLogger operationSummary;
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, TransactionCodec.APPLICATION_SMILE_VALUE })
     @Operation(summary = "Get all transactions", description = "Retrieve all donation transactions")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<List<Transaction>>> getAllTransactions(
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
@@ -42,7 +58,7 @@ public class TransactionController {
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
         
         try {
-            logger.info("Fetching transactions with page={}, size={}, sortBy={}, sortDir={}", page, size, sortBy, sortDir);
+            logger.debug("Fetching transactions with page={}, size={}, sortBy={}, sortDir={}", page, size, sortBy, sortDir);
             
             List<Transaction> transactions = transactionService.getAllTransactions(page, size, sortBy, sortDir);
             
@@ -52,28 +68,33 @@ public class TransactionController {
                 transactions
             );
             
-            logger.info("Successfully retrieved {} transactions", transactions.size());
+            operationSummary.record("getAllTransactions", transactions.size());
             return ResponseEntity.ok(response);
             
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getAllTransactions");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error retrieving transactions: {}", e.getMessage(), e);
+            operationSummary.recordFailure("getAllTransactions");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to retrieve transactions", null));
         }
     }
 
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, TransactionCodec.APPLICATION_SMILE_VALUE })
     @Operation(summary = "Get transaction by ID", description = "Retrieve a specific transaction by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved transaction"),
         @ApiResponse(responseCode = "404", description = "Transaction not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<Transaction>> getTransactionById(
             @Parameter(description = "Transaction ID") @PathVariable String id) {
         
         try {
-            logger.info("Fetching transaction with ID: {}", id);
+            logger.debug("Fetching transaction with ID: {}", id);
             
             Transaction transaction = transactionService.getTransactionById(id);
             
@@ -89,11 +110,15 @@ public class TransactionController {
                 transaction
             );
             
-            logger.info("Successfully retrieved transaction with ID: {}", id);
+            operationSummary.record("getTransactionById", 1);
             return ResponseEntity.ok(response);
             
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getTransactionById");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error retrieving transaction with ID {}: {}", id, e.getMessage(), e);
+            operationSummary.recordFailure("getTransactionById");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to retrieve transaction", null));
         }
@@ -104,22 +129,26 @@ public class TransactionController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Transaction created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid transaction data"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<Transaction>> createTransaction(
-            @Parameter(description = "Transaction data") @Valid @RequestBody Transaction transaction) {
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Transaction data",
+                content = @Content(schema = @Schema(implementation = Transaction.class)))
+            @RequestBody DonationRequest request) {
         
         try {
-            logger.info("Creating new transaction: {}", transaction);
-            
-            // Validate transaction data
-            if (transaction.getAmount() == null || transaction.getAmount() <= 0) {
-                logger.warn("Invalid transaction amount: {}", transaction.getAmount());
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Invalid transaction amount", null));
+            // Decoded and validated in one pass by DonationRequestDecoder
+            if (request.hasErrors()) {
+                logger.warn("Invalid transaction data: {}", request.getErrors());
+                ApiResponse<Transaction> response = new ApiResponse<>(false, "Invalid transaction data", null);
+                response.setErrors(request.getErrors());
+                return ResponseEntity.badRequest().body(response);
             }
+            Transaction transaction = request.getTransaction();
+            logger.debug("Creating new transaction for charity ID: {}", transaction.getCharityId());
             
-            Transaction createdTransaction = transactionService.createTransaction(transaction);
+            Transaction createdTransaction = transactionService.createValidatedTransaction(transaction);
             
             ApiResponse<Transaction> response = new ApiResponse<>(
                 true, 
@@ -127,15 +156,19 @@ public class TransactionController {
                 createdTransaction
             );
             
-            logger.info("Successfully created transaction with ID: {}", createdTransaction.getId());
+            operationSummary.record("createTransaction", 1);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid transaction data: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("createTransaction");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error creating transaction: {}", e.getMessage(), e);
+            operationSummary.recordFailure("createTransaction");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to create transaction", null));
         }
@@ -147,14 +180,15 @@ public class TransactionController {
         @ApiResponse(responseCode = "200", description = "Transaction updated successfully"),
         @ApiResponse(responseCode = "404", description = "Transaction not found"),
         @ApiResponse(responseCode = "400", description = "Invalid transaction data"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<Transaction>> updateTransaction(
             @Parameter(description = "Transaction ID") @PathVariable String id,
             @Parameter(description = "Updated transaction data") @Valid @RequestBody Transaction transaction) {
         
         try {
-            logger.info("Updating transaction with ID: {}", id);
+            logger.debug("Updating transaction with ID: {}", id);
             
             Transaction updatedTransaction = transactionService.updateTransaction(id, transaction);
             
@@ -170,15 +204,19 @@ public class TransactionController {
                 updatedTransaction
             );
             
-            logger.info("Successfully updated transaction with ID: {}", id);
+            operationSummary.record("updateTransaction", 1);
             return ResponseEntity.ok(response);
             
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid transaction data for update: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("updateTransaction");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error updating transaction with ID {}: {}", id, e.getMessage(), e);
+            operationSummary.recordFailure("updateTransaction");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to update transaction", null));
         }
@@ -189,13 +227,14 @@ public class TransactionController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transaction deleted successfully"),
         @ApiResponse(responseCode = "404", description = "Transaction not found"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<Void>> deleteTransaction(
             @Parameter(description = "Transaction ID") @PathVariable String id) {
         
         try {
-            logger.info("Deleting transaction with ID: {}", id);
+            logger.debug("Deleting transaction with ID: {}", id);
             
             boolean deleted = transactionService.deleteTransaction(id);
             
@@ -211,21 +250,26 @@ public class TransactionController {
                 null
             );
             
-            logger.info("Successfully deleted transaction with ID: {}", id);
+            operationSummary.record("deleteTransaction", 1);
             return ResponseEntity.ok(response);
             
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("deleteTransaction");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error deleting transaction with ID {}: {}", id, e.getMessage(), e);
+            operationSummary.recordFailure("deleteTransaction");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to delete transaction", null));
         }
     }
 
-    @GetMapping("/charity/{charityId}")
+    @GetMapping(value = "/charity/{charityId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, TransactionCodec.APPLICATION_SMILE_VALUE })
     @Operation(summary = "Get transactions by charity", description = "Retrieve all transactions for a specific charity")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<List<Transaction>>> getTransactionsByCharity(
             @Parameter(description = "Charity ID") @PathVariable String charityId,
@@ -233,7 +277,7 @@ public class TransactionController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
         
         try {
-            logger.info("Fetching transactions for charity ID: {}", charityId);
+            logger.debug("Fetching transactions for charity ID: {}", charityId);
             
             List<Transaction> transactions = transactionService.getTransactionsByCharity(charityId, page, size);
             
@@ -243,26 +287,160 @@ public class TransactionController {
                 transactions
             );
             
-            logger.info("Successfully retrieved {} transactions for charity ID: {}", transactions.size(), charityId);
+            operationSummary.record("getTransactionsByCharity", transactions.size());
             return ResponseEntity.ok(response);
             
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getTransactionsByCharity");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error retrieving transactions for charity ID {}: {}", charityId, e.getMessage(), e);
+            operationSummary.recordFailure("getTransactionsByCharity");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to retrieve transactions", null));
         }
     }
 
+    @GetMapping(value = "/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, TransactionCodec.APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Search transactions", description = "Find transactions by partial donor name or message text")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched transactions"),
+        @ApiResponse(responseCode = "400", description = "Missing or too short search query, or invalid page/size"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Search index is still loading")
+    })
+    public ResponseEntity<ApiResponse<List<Transaction>>> searchTransactions(
+            @Parameter(description = "Search text") @RequestParam("q") String query,
+            @Parameter(description = "Charity ID filter") @RequestParam(required = false) String charityId,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        
+        try {
+            logger.debug("Searching transactions for query: {}", query);
+            
+            List<Transaction> transactions = transactionService.searchTransactions(query, charityId, page, size);
+            
+            ApiResponse<List<Transaction>> response = new ApiResponse<>(
+                true, 
+                "Transactions retrieved successfully", 
+                transactions
+            );
+            
+            operationSummary.record("searchTransactions", transactions.size());
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("searchTransactions");
+            return unavailable(e);
+        } catch (Exception e) {
+            logger.error("Error searching transactions: {}", e.getMessage(), e);
+            operationSummary.recordFailure("searchTransactions");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse<>(false, "Failed to search transactions", null));
+        }
+    }
+
+    @GetMapping("/leaderboard")
+    @Operation(summary = "Get top donors", description = "Rank donors by confirmed donation total for a charity or across all charities")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved leaderboard"),
+        @ApiResponse(responseCode = "400", description = "Unknown window or k out of range"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Leaderboards are still loading")
+    })
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getLeaderboard(
+            @Parameter(description = "Charity ID, omit for all charities") @RequestParam(required = false) String charityId,
+            @Parameter(description = "Rolling window such as 7d, or all") @RequestParam(defaultValue = DonorLeaderboards.ALL_TIME) String window,
+            @Parameter(description = "Number of donors") @RequestParam(defaultValue = "10") int k) {
+        
+        try {
+            logger.debug("Fetching leaderboard for charityId={}, window={}", charityId, window);
+            
+            List<LeaderboardEntry> entries = transactionService.getTopDonors(charityId, window, k);
+            
+            ApiResponse<List<LeaderboardEntry>> response = new ApiResponse<>(
+                true, 
+                "Leaderboard retrieved successfully", 
+                entries
+            );
+            
+            operationSummary.record("getLeaderboard", entries.size());
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid leaderboard request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getLeaderboard");
+            return unavailable(e);
+        } catch (Exception e) {
+            logger.error("Error fetching leaderboard: {}", e.getMessage(), e);
+            operationSummary.recordFailure("getLeaderboard");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse<>(false, "Failed to retrieve leaderboard", null));
+        }
+    }
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get donation time series", description = "Count, sum, min and max of donations over time, bucketed at the finest resolution that stays within the requested number of points")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved time series"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or point count"),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Rollups are still loading")
+    })
+    public ResponseEntity<ApiResponse<TimeSeries>> getTimeSeries(
+            @Parameter(description = "Charity ID, omit for all charities") @RequestParam(required = false) String charityId,
+            @Parameter(description = "Payment method, omit for all") @RequestParam(required = false) String paymentMethod,
+            @Parameter(description = "Range start (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "Range end (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Maximum number of points") @RequestParam(defaultValue = "300") int points) {
+        
+        try {
+            logger.debug("Fetching time series for charityId={}, {} .. {}", charityId, startDate, endDate);
+            
+            TimeSeries series = transactionService.getTimeSeries(charityId, paymentMethod, startDate, endDate, points);
+            
+            ApiResponse<TimeSeries> response = new ApiResponse<>(
+                true, 
+                "Time series retrieved successfully", 
+                series
+            );
+            
+            operationSummary.record("getTimeSeries", series.getPoints().size());
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid time series request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getTimeSeries");
+            return unavailable(e);
+        } catch (Exception e) {
+            logger.error("Error fetching time series: {}", e.getMessage(), e);
+            operationSummary.recordFailure("getTimeSeries");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse<>(false, "Failed to retrieve time series", null));
+        }
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "Get transaction statistics", description = "Retrieve transaction statistics and analytics")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics"),
-        @ApiResponse(responseCode = "500", description = "Internal server error")
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "503", description = "Backing store unavailable")
     })
     public ResponseEntity<ApiResponse<Map<String, Object>>> getTransactionStats() {
         
         try {
-            logger.info("Fetching transaction statistics");
+            logger.debug("Fetching transaction statistics");
             
             Map<String, Object> stats = transactionService.getTransactionStats();
             
@@ -272,22 +450,35 @@ public class TransactionController {
                 stats
             );
             
-            logger.info("Successfully retrieved transaction statistics");
+            operationSummary.record("getTransactionStats", 1);
             return ResponseEntity.ok(response);
             
+        } catch (DependencyUnavailableException e) {
+            operationSummary.recordFailure("getTransactionStats");
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Error retrieving transaction statistics: {}", e.getMessage(), e);
+            operationSummary.recordFailure("getTransactionStats");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse<>(false, "Failed to retrieve statistics", null));
         }
     }
 
+    private <T> ResponseEntity<ApiResponse<T>> unavailable(DependencyUnavailableException e) {
+        logger.warn("Dependency unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+            .body(new ApiResponse<>(false, "Service temporarily unavailable", null));
+    }
+
     // Generic API Response wrapper
     public static class ApiResponse<T> {
         private boolean success;
         private String message;
         private T data;
         private long timestamp;
+        private Boolean stale;
+        private Map<String, String> errors;
 
         public ApiResponse(boolean success, String message, T data) {
             this.success = success;
@@ -308,5 +499,14 @@ public class TransactionController {
         
         public long getTimestamp() { return timestamp; }
         public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+        public Boolean getStale() { return stale; }
+        public void setStale(Boolean stale) { this.stale = stale; }
+
+        /**
+         * Validation problems keyed by request field; null unless the request was rejected
+         */
+        public Map<String, String> getErrors() { return errors; }
+        public void setErrors(Map<String, String> errors) { this.errors = errors; }
     }
 }
@@ -1,15 +1,26 @@
 package com.example.demo.entity;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 public class Transaction {
     // Define fields according to your requirements
     private String id;
-    private double amount;
+    private String charityId;
+    private String donorName;
+    private BigDecimal amount;
+    private String paymentMethod;
+    private String status;
+    private String message;
     private String description;
+    private String transactionHash;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     // Constructors
     public Transaction() {}
 
-    public Transaction(String id, double amount, String description) {
+    public Transaction(String id, BigDecimal amount, String description) {
         this.id = id;
         this.amount = amount;
         this.description = description;
@@ -24,14 +35,54 @@ public class Transaction {
         this.id = id;
     }
 
-    public double getAmount() {
+    public String getCharityId() {
+        return charityId;
+    }
+
+    public void setCharityId(String charityId) {
+        this.charityId = charityId;
+    }
+
+    public String getDonorName() {
+        return donorName;
+    }
+
+    public void setDonorName(String donorName) {
+        this.donorName = donorName;
+    }
+
+    public BigDecimal getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
 
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -39,4 +90,44 @@ public class Transaction {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public void setTransactionHash(String transactionHash) {
+        this.transactionHash = transactionHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Transaction{" +
+            "id='" + id + '\'' +
+            ", charityId='" + charityId + '\'' +
+            ", donorName='" + donorName + '\'' +
+            ", amount=" + amount +
+            ", paymentMethod='" + paymentMethod + '\'' +
+            ", status='" + status + '\'' +
+            ", message='" + message + '\'' +
+            ", transactionHash='" + transactionHash + '\'' +
+            ", createdAt=" + createdAt +
+            ", updatedAt=" + updatedAt +
+            '}';
+    }
 }
@@ -0,0 +1,45 @@
+package com.example.demo.leaderboard;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.StoreLoadListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds the leaderboards from the shared startup pass over the store and
+ * periodically ages out rolling-window buckets.
+ */
+@Component
+public class DonorLeaderboardLoader implements StoreLoadListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DonorLeaderboardLoader.class);
+
+    @Autowired
+    private DonorLeaderboards leaderboards;
+
+    @Scheduled(fixedDelayString = "${leaderboard.expire-interval-ms:60000}")
+    public void expireWindows() {
+        if (leaderboards.isReady()) {
+            leaderboards.expireWindows();
+        }
+    }
+
+    @Override
+    public String loadName() {
+        return "leaderboards";
+    }
+
+    @Override
+    public void loaded(Transaction transaction) {
+        leaderboards.applyIfAbsent(transaction);
+    }
+
+    @Override
+    public void loadFinished() {
+        leaderboards.markReady();
+        logger.info("Leaderboards loaded: contributions={}", leaderboards.size());
+    }
+}
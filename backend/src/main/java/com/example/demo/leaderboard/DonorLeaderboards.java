@@ -0,0 +1,223 @@
+package com.example.demo.leaderboard;
+
+import com.example.demo.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top donors per charity and across all charities, over all time and over
+ * rolling windows, kept up to date as transactions are written so that a
+ * leaderboard read never scans the store.
+ *
+ * Only confirmed donations count. The board remembers what each transaction
+ * contributed, so an update or delete backs out exactly the old contribution
+ * before applying the new one.
+ */
+@Component
+public class DonorLeaderboards {
+
+    public static final String ALL_TIME = "all";
+
+    static final int AMOUNT_SCALE = 2;
+
+    private static final String COUNTED_STATUS = "CONFIRMED";
+    private static final String GLOBAL = "*";
+
+    @Value("${leaderboard.mode:exact}")
+    private String mode;
+
+    @Value("${leaderboard.max-k:100}")
+    private int maxK;
+
+    @Value("${leaderboard.space-saving.capacity:1000}")
+    private int spaceSavingCapacity;
+
+    @Value("${leaderboard.windows:1d,7d,30d}")
+    private List<String> windowSpecs;
+
+    @Value("${leaderboard.buckets-per-window:24}")
+    private int bucketsPerWindow;
+
+    private final Map<String, Long> windows = new LinkedHashMap<>();
+    private final Map<String, Leaderboard> boards = new ConcurrentHashMap<>();
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private final Set<String> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        if (!"exact".equals(mode) && !"space-saving".equals(mode)) {
+            throw new IllegalStateException("leaderboard.mode must be exact or space-saving, was " + mode);
+        }
+        windows.put(ALL_TIME, 0L);
+        for (String spec : windowSpecs) {
+            windows.put(spec.trim(), DurationStyle.detectAndParse(spec.trim()).toMillis());
+        }
+    }
+
+    /**
+     * Bring the boards in line with the current state of a transaction
+     */
+    public void apply(Transaction transaction) {
+        if (!ready) {
+            touchedDuringLoad.add(transaction.getId());
+        }
+        Contribution next = contributionOf(transaction);
+        contributions.compute(transaction.getId(), (id, previous) -> {
+            if (Objects.equals(previous, next)) {
+                return previous;
+            }
+            if (previous != null) {
+                post(previous, -previous.amountMinor);
+            }
+            if (next != null) {
+                post(next, next.amountMinor);
+            }
+            return next;
+        });
+    }
+
+    public void remove(String transactionId) {
+        if (!ready) {
+            touchedDuringLoad.add(transactionId);
+        }
+        contributions.computeIfPresent(transactionId, (id, previous) -> {
+            post(previous, -previous.amountMinor);
+            return null;
+        });
+    }
+
+    /**
+     * Count a transaction read during the startup load unless a live write
+     * has already accounted for it
+     */
+    void applyIfAbsent(Transaction transaction) {
+        Contribution next = contributionOf(transaction);
+        if (next == null || touchedDuringLoad.contains(transaction.getId())) {
+            return;
+        }
+        contributions.computeIfAbsent(transaction.getId(), id -> {
+            post(next, next.amountMinor);
+            return next;
+        });
+    }
+
+    void markReady() {
+        ready = true;
+        touchedDuringLoad.clear();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isWindow(String window) {
+        return windows.containsKey(window);
+    }
+
+    public int getMaxK() {
+        return maxK;
+    }
+
+    public int size() {
+        return contributions.size();
+    }
+
+    /**
+     * @param charityId charity to rank within, or null for all charities
+     */
+    public List<LeaderboardEntry> top(String charityId, String window, int k) {
+        Leaderboard board = boards.get(boardKey(charityId != null ? charityId : GLOBAL, window));
+        return board != null ? board.top(k) : Collections.emptyList();
+    }
+
+    /**
+     * Age out buckets that have left their window even when nothing is being written
+     */
+    void expireWindows() {
+        long now = System.currentTimeMillis();
+        boards.values().forEach(board -> board.expire(now));
+    }
+
+    private void post(Contribution contribution, long delta) {
+        for (Map.Entry<String, Long> window : windows.entrySet()) {
+            board(contribution.charityId, window).add(contribution.donor, delta, contribution.eventMillis);
+            board(GLOBAL, window).add(contribution.donor, delta, contribution.eventMillis);
+        }
+    }
+
+    private Leaderboard board(String scope, Map.Entry<String, Long> window) {
+        return boards.computeIfAbsent(boardKey(scope, window.getKey()), key -> new Leaderboard(
+            "space-saving".equals(mode) ? new SpaceSavingTopK(spaceSavingCapacity, maxK) : new ExactTopK(maxK),
+            window.getValue(), bucketsPerWindow));
+    }
+
+    private static String boardKey(String scope, String window) {
+        return scope + '|' + window;
+    }
+
+    private static Contribution contributionOf(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (!COUNTED_STATUS.equals(transaction.getStatus()) || amount == null || amount.signum() <= 0
+                || transaction.getDonorName() == null || transaction.getCharityId() == null) {
+            return null;
+        }
+        // New writes are capped by TransactionService.validateTransaction; an
+        // older row that does not fit in minor units is left out, not thrown on
+        BigInteger minor = amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue();
+        if (minor.bitLength() >= Long.SIZE - 1) {
+            return null;
+        }
+        // createdAt is local time (see TransactionService.applyDefaults), so it
+        // is converted in the system zone to compare with the window clock.
+        // A future time is clamped here, once, so that the removal later goes
+        // to the same bucket as the add.
+        long now = System.currentTimeMillis();
+        long eventMillis = transaction.getCreatedAt() != null
+            ? Math.min(transaction.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), now)
+            : now;
+        return new Contribution(transaction.getDonorName(), transaction.getCharityId(), minor.longValue(), eventMillis);
+    }
+
+    private static final class Contribution {
+        final String donor;
+        final String charityId;
+        final long amountMinor;
+        // When the contribution was bucketed; reused on removal
+        final long eventMillis;
+
+        Contribution(String donor, String charityId, long amountMinor, long eventMillis) {
+            this.donor = donor;
+            this.charityId = charityId;
+            this.amountMinor = amountMinor;
+            this.eventMillis = eventMillis;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Contribution)) return false;
+            Contribution other = (Contribution) o;
+            return amountMinor == other.amountMinor && eventMillis == other.eventMillis
+                && donor.equals(other.donor) && charityId.equals(other.charityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(donor, charityId, amountMinor, eventMillis);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.leaderboard;
+
+import java.util.List;
+
+/**
+ * Running per-donor totals that can report the top donors. Not thread-safe;
+ * callers serialize access.
+ */
+interface DonorRanking {
+
+    /**
+     * Adjust a donor's total by {@code delta} minor units (may be negative)
+     */
+    void add(String donor, long delta);
+
+    /**
+     * Finish a group of {@link #add} calls and return the ranking, highest first
+     */
+    List<LeaderboardEntry> flush();
+}
@@ -0,0 +1,74 @@
+package com.example.demo.leaderboard;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Exact ranking: a hash of every donor's total plus the same totals kept in
+ * rank order. Any change, up or down, is O(log d) for d donors, and reading
+ * the top {@code k} walks only the first k entries, so a donor falling out of
+ * the top k (for example when a window bucket expires) never forces a rescan
+ * of every total.
+ */
+final class ExactTopK implements DonorRanking {
+
+    private final int k;
+    private final Map<String, Long> totals = new HashMap<>();
+    private final TreeSet<Ranked> ranked = new TreeSet<>();
+
+    ExactTopK(int k) {
+        this.k = k;
+    }
+
+    @Override
+    public void add(String donor, long delta) {
+        Long previous = totals.get(donor);
+        if (previous != null) {
+            ranked.remove(new Ranked(donor, previous));
+        }
+        long total = (previous != null ? previous : 0) + delta;
+        if (total > 0) {
+            totals.put(donor, total);
+            ranked.add(new Ranked(donor, total));
+        } else {
+            totals.remove(donor);
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> flush() {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(k, ranked.size()));
+        Iterator<Ranked> it = ranked.iterator();
+        while (it.hasNext() && entries.size() < k) {
+            Ranked r = it.next();
+            entries.add(new LeaderboardEntry(r.donor,
+                BigDecimal.valueOf(r.total, DonorLeaderboards.AMOUNT_SCALE), null));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Highest total first; ties broken by donor name
+     */
+    private static final class Ranked implements Comparable<Ranked> {
+        final String donor;
+        final long total;
+
+        Ranked(String donor, long total) {
+            this.donor = donor;
+            this.total = total;
+        }
+
+        @Override
+        public int compareTo(Ranked other) {
+            int c = Long.compare(other.total, total);
+            return c != 0 ? c : donor.compareTo(other.donor);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.leaderboard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary min-heap of (donor, value) with a hash index from donor to heap slot,
+ * so a donor's value can be changed or removed in O(log n).
+ */
+final class IndexedMinHeap {
+
+    private String[] keys;
+    private long[] values;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private int size;
+
+    IndexedMinHeap(int initialCapacity) {
+        keys = new String[Math.max(1, initialCapacity)];
+        values = new long[keys.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(String key) {
+        return positions.containsKey(key);
+    }
+
+    long get(String key) {
+        return values[positions.get(key)];
+    }
+
+    String minKey() {
+        return keys[0];
+    }
+
+    long minValue() {
+        return values[0];
+    }
+
+    /**
+     * Insert the key or change its value
+     */
+    void put(String key, long value) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            long old = values[position];
+            values[position] = value;
+            if (value < old) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        positions.put(key, size);
+        siftUp(size++);
+    }
+
+    String removeMin() {
+        String min = keys[0];
+        removeAt(0);
+        return min;
+    }
+
+    void remove(String key) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            removeAt(position);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    String keyAt(int i) {
+        return keys[i];
+    }
+
+    long valueAt(int i) {
+        return values[i];
+    }
+
+    private void removeAt(int position) {
+        positions.remove(keys[position]);
+        size--;
+        if (position == size) {
+            keys[size] = null;
+            return;
+        }
+        keys[position] = keys[size];
+        values[position] = values[size];
+        keys[size] = null;
+        positions.put(keys[position], position);
+        siftDown(position);
+        siftUp(position);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (values[parent] <= values[i]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        for (;;) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && values[left + 1] < values[left] ? left + 1 : left;
+            if (values[i] <= values[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        long value = values[a];
+        keys[a] = keys[b];
+        values[a] = values[b];
+        keys[b] = key;
+        values[b] = value;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One ranking (a charity or global) over all time or a rolling window.
+ *
+ * A rolling window is split into buckets by donation time. Each bucket keeps
+ * its per-donor sums, so when it falls out of the window those sums are taken
+ * back out of the ranking.
+ *
+ * Writers never wait on a board: {@link #add} queues the change and applies
+ * the queue only if the board's lock is free, otherwise the current holder
+ * (or the next reader) applies it. The published ranking is rebuilt lazily,
+ * at most once per read that follows a change, so a burst of donations to
+ * the shared global boards costs one ranking pass instead of one per write.
+ */
+final class Leaderboard {
+
+    private final DonorRanking ranking;
+    private final long bucketMillis;
+    private final long[] bucketEpochs;
+    private final List<Map<String, Long>> buckets;
+
+    private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; dirty is also peeked by readers without it
+    private long lastNowMillis = Long.MIN_VALUE;
+    private volatile boolean dirty;
+
+    private volatile List<LeaderboardEntry> snapshot = List.of();
+
+    /**
+     * @param windowMillis window length, or 0 for all time
+     */
+    Leaderboard(DonorRanking ranking, long windowMillis, int bucketCount) {
+        this.ranking = ranking;
+        if (windowMillis > 0) {
+            this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+            this.bucketEpochs = new long[bucketCount];
+            this.buckets = new ArrayList<>(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                bucketEpochs[i] = Long.MIN_VALUE;
+                buckets.add(new HashMap<>());
+            }
+        } else {
+            this.bucketMillis = 0;
+            this.bucketEpochs = null;
+            this.buckets = null;
+        }
+    }
+
+    void add(String donor, long delta, long eventMillis) {
+        pending.add(new Change(donor, delta, eventMillis));
+        // Retry if a change arrived after the holder's last drain but before it unlocked
+        while (!pending.isEmpty() && lock.tryLock()) {
+            try {
+                drain(System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void expire(long nowMillis) {
+        lock.lock();
+        try {
+            drain(nowMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<LeaderboardEntry> top(int k) {
+        if (!pending.isEmpty() || dirty) {
+            lock.lock();
+            try {
+                drain(System.currentTimeMillis());
+                if (dirty) {
+                    snapshot = ranking.flush();
+                    dirty = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        List<LeaderboardEntry> current = snapshot;
+        return current.size() <= k ? current : current.subList(0, k);
+    }
+
+    /**
+     * Apply queued changes; caller holds the lock
+     */
+    private void drain(long nowMillis) {
+        // Bucket epochs must only move forward
+        long now = Math.max(nowMillis, lastNowMillis);
+        lastNowMillis = now;
+        if (buckets != null && expireBuckets(now)) {
+            dirty = true;
+        }
+        Change change;
+        while ((change = pending.poll()) != null) {
+            if (buckets != null) {
+                long epoch = Math.min(change.eventMillis, now) / bucketMillis;
+                long oldest = now / bucketMillis - buckets.size() + 1;
+                if (epoch < oldest) {
+                    continue;
+                }
+                Map<String, Long> bucket = buckets.get((int) Math.floorMod(epoch, (long) buckets.size()));
+                if (bucket.merge(change.donor, change.delta, Long::sum) == 0) {
+                    bucket.remove(change.donor);
+                }
+            }
+            ranking.add(change.donor, change.delta);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Give every bucket the epoch it should hold for the window ending now,
+     * backing out the contents of any bucket that has aged out
+     */
+    private boolean expireBuckets(long nowMillis) {
+        int n = buckets.size();
+        long current = nowMillis / bucketMillis;
+        boolean changed = false;
+        for (int slot = 0; slot < n; slot++) {
+            long expected = current - Math.floorMod(current - slot, (long) n);
+            if (bucketEpochs[slot] == expected) {
+                continue;
+            }
+            Map<String, Long> bucket = buckets.get(slot);
+            if (!bucket.isEmpty()) {
+                bucket.forEach((donor, sum) -> ranking.add(donor, -sum));
+                bucket.clear();
+                changed = true;
+            }
+            bucketEpochs[slot] = expected;
+        }
+        return changed;
+    }
+
+    private static final class Change {
+        final String donor;
+        final long delta;
+        final long eventMillis;
+
+        Change(String donor, long delta, long eventMillis) {
+            this.donor = donor;
+            this.delta = delta;
+            this.eventMillis = eventMillis;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.leaderboard;
+
+import java.math.BigDecimal;
+
+public class LeaderboardEntry {
+
+    private final String donorName;
+    private final BigDecimal total;
+    private final BigDecimal maxOverestimate;
+
+    public LeaderboardEntry(String donorName, BigDecimal total, BigDecimal maxOverestimate) {
+        this.donorName = donorName;
+        this.total = total;
+        this.maxOverestimate = maxOverestimate;
+    }
+
+    public String getDonorName() { return donorName; }
+    public BigDecimal getTotal() { return total; }
+
+    /**
+     * Upper bound on how much {@link #getTotal()} may overstate the true total;
+     * null for exact rankings
+     */
+    public BigDecimal getMaxOverestimate() { return maxOverestimate; }
+}
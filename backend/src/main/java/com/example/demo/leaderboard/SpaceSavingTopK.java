@@ -0,0 +1,73 @@
+package com.example.demo.leaderboard;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate ranking for very large donor sets using weighted Space-Saving:
+ * a fixed number of counters kept in an indexed min-heap. An untracked donor
+ * takes over the smallest counter and inherits its value as an error bound, so
+ * every reported total overstates the truth by at most that bound. Memory is
+ * O(capacity) regardless of how many donors there are.
+ *
+ * Decreases only apply to donors that are currently tracked.
+ */
+final class SpaceSavingTopK implements DonorRanking {
+
+    private final int capacity;
+    private final int k;
+    private final IndexedMinHeap counters;
+    private final Map<String, Long> errors = new HashMap<>();
+
+    SpaceSavingTopK(int capacity, int k) {
+        this.capacity = Math.max(capacity, k);
+        this.k = k;
+        this.counters = new IndexedMinHeap(this.capacity);
+    }
+
+    @Override
+    public void add(String donor, long delta) {
+        if (counters.contains(donor)) {
+            long count = counters.get(donor) + delta;
+            if (count <= 0) {
+                counters.remove(donor);
+                errors.remove(donor);
+            } else {
+                counters.put(donor, count);
+            }
+        } else if (delta > 0) {
+            if (counters.size() < capacity) {
+                counters.put(donor, delta);
+            } else {
+                long min = counters.minValue();
+                errors.remove(counters.removeMin());
+                counters.put(donor, min + delta);
+                errors.put(donor, min);
+            }
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> flush() {
+        List<Integer> order = new ArrayList<>(counters.size());
+        for (int i = 0; i < counters.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            int c = Long.compare(counters.valueAt(b), counters.valueAt(a));
+            return c != 0 ? c : counters.keyAt(a).compareTo(counters.keyAt(b));
+        });
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(k, order.size()));
+        for (int i = 0; i < order.size() && entries.size() < k; i++) {
+            String donor = counters.keyAt(order.get(i));
+            entries.add(new LeaderboardEntry(donor,
+                BigDecimal.valueOf(counters.valueAt(order.get(i)), DonorLeaderboards.AMOUNT_SCALE),
+                BigDecimal.valueOf(errors.getOrDefault(donor, 0L), DonorLeaderboards.AMOUNT_SCALE)));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+}
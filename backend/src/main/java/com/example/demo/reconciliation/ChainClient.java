@@ -0,0 +1,15 @@
+package com.example.demo.reconciliation;
+
+/**
+ * Read-only view of the chain used to confirm that a recorded transaction
+ * hash was actually mined. Implementations must be thread-safe; the
+ * reconciliation job calls them from several worker threads at once.
+ */
+public interface ChainClient {
+
+    /**
+     * @return true if the chain has a transaction with this hash
+     * @throws Exception if the chain could not be queried
+     */
+    boolean exists(String transactionHash) throws Exception;
+}
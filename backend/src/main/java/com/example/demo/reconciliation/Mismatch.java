@@ -0,0 +1,48 @@
+package com.example.demo.reconciliation;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.util.JsonLines;
+
+/**
+ * A confirmed transaction whose hash could not be matched on chain
+ */
+public final class Mismatch {
+
+    public enum Reason {
+        MISSING_HASH,
+        MALFORMED_HASH,
+        NOT_ON_CHAIN
+    }
+
+    private final String transactionId;
+    private final String charityId;
+    private final String transactionHash;
+    private final Reason reason;
+    private final String detail;
+
+    Mismatch(Transaction transaction, Reason reason, String detail) {
+        this.transactionId = transaction.getId();
+        this.charityId = transaction.getCharityId();
+        this.transactionHash = transaction.getTransactionHash();
+        this.reason = reason;
+        this.detail = detail;
+    }
+
+    public String getTransactionId() { return transactionId; }
+    public String getCharityId() { return charityId; }
+    public String getTransactionHash() { return transactionHash; }
+    public Reason getReason() { return reason; }
+    public String getDetail() { return detail; }
+
+    /**
+     * Append this mismatch as a single JSON line
+     */
+    void appendJson(StringBuilder sb) {
+        sb.append("{\"reason\":\"").append(reason.name()).append('"');
+        JsonLines.appendField(sb, "transactionId", transactionId);
+        JsonLines.appendField(sb, "charityId", charityId);
+        JsonLines.appendField(sb, "transactionHash", transactionHash);
+        JsonLines.appendField(sb, "detail", detail);
+        sb.append("}\n");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.reconciliation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * Progress of one reconciliation run over [since, until). The store is
+ * scanned in a stable order, so the scan cursor is enough to resume, and the
+ * recorded report length lets a resumed run cut off mismatches written after
+ * the last save. The file is replaced atomically after every page, so a
+ * crash loses at most the page in progress.
+ */
+public final class ReconciliationCheckpoint {
+
+    private final String runId;
+    private final LocalDateTime since;
+    private final LocalDateTime until;
+    private String cursor;
+    private boolean complete;
+    private long reportBytes;
+    private long scanned;
+    private long verified;
+    private long mismatches;
+
+    ReconciliationCheckpoint(String runId, LocalDateTime since, LocalDateTime until) {
+        this.runId = runId;
+        this.since = since;
+        this.until = until;
+    }
+
+    public String getRunId() { return runId; }
+    public LocalDateTime getSince() { return since; }
+    public LocalDateTime getUntil() { return until; }
+    public String getCursor() { return cursor; }
+    public long getReportBytes() { return reportBytes; }
+    public long getScanned() { return scanned; }
+    public long getVerified() { return verified; }
+    public long getMismatches() { return mismatches; }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @param nextCursor cursor of the next page, or null if this was the last one
+     * @param reportLength length of the mismatch report after this page
+     */
+    void completePage(String nextCursor, long reportLength, long scannedRows, long verifiedRows, long mismatchRows) {
+        cursor = nextCursor;
+        complete = nextCursor == null;
+        reportBytes = reportLength;
+        scanned += scannedRows;
+        verified += verifiedRows;
+        mismatches += mismatchRows;
+    }
+
+    /**
+     * @return the saved checkpoint, or null if there is none
+     */
+    static ReconciliationCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        LocalDateTime until = LocalDateTime.parse(properties.getProperty("until"));
+        String since = properties.getProperty("since");
+        ReconciliationCheckpoint checkpoint;
+        if (since != null) {
+            checkpoint = new ReconciliationCheckpoint(properties.getProperty("runId"), LocalDateTime.parse(since), until);
+            checkpoint.cursor = properties.getProperty("cursor");
+            checkpoint.complete = Boolean.parseBoolean(properties.getProperty("complete"));
+            checkpoint.reportBytes = Long.parseLong(properties.getProperty("reportBytes", "-1"));
+        } else {
+            // Written before runs were scanned by cursor: rescan what was left of the window
+            LocalDateTime completedThrough = LocalDateTime.parse(properties.getProperty("completedThrough"));
+            checkpoint = new ReconciliationCheckpoint(properties.getProperty("runId"), completedThrough, until);
+            checkpoint.complete = !completedThrough.isBefore(until);
+            checkpoint.reportBytes = -1;
+        }
+        checkpoint.scanned = Long.parseLong(properties.getProperty("scanned", "0"));
+        checkpoint.verified = Long.parseLong(properties.getProperty("verified", "0"));
+        checkpoint.mismatches = Long.parseLong(properties.getProperty("mismatches", "0"));
+        return checkpoint;
+    }
+
+    void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("runId", runId);
+        properties.setProperty("until", until.toString());
+        properties.setProperty("since", since.toString());
+        if (cursor != null) {
+            properties.setProperty("cursor", cursor);
+        }
+        properties.setProperty("complete", Boolean.toString(complete));
+        properties.setProperty("reportBytes", Long.toString(reportBytes));
+        properties.setProperty("scanned", Long.toString(scanned));
+        properties.setProperty("verified", Long.toString(verified));
+        properties.setProperty("mismatches", Long.toString(mismatches));
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "reconciliation checkpoint");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.demo.reconciliation;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.TransactionPage;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.resilience.DependencyGuard;
+import com.example.demo.resilience.DependencyGuardRegistry;
+import com.example.demo.resilience.DependencyUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that transactions marked CONFIRMED carry a hash that exists on
+ * chain. A run covers rows created in [since, until); the next run starts at
+ * this run's until, so no row is reported twice. The window is read with a
+ * paged {@link TransactionRepository#scan}, which is one pass over the store
+ * on every engine, and only one page is in memory at a time. Each page is
+ * verified in parallel on a dedicated, low-priority fork-join pool and then
+ * checkpointed, so an interrupted run resumes from the last finished page.
+ * Chain lookups are retried a few times; if one still fails, or the job is
+ * shut down mid-page, the run stops before checkpointing that page and the
+ * next run verifies it again.
+ *
+ * Mismatches are appended as JSON lines to {@code mismatches-<runId>.jsonl}
+ * next to the checkpoint and forced to disk before the checkpoint moves past
+ * them; a resumed run first cuts the report back to the length the
+ * checkpoint recorded, so a page redone after a crash is not reported twice.
+ * Store reads go through their own dependency guard so the job cannot use up
+ * the bulkhead that serves live requests.
+ */
+@Component
+public class ReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationJob.class);
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DependencyGuardRegistry dependencyGuards;
+
+    @Autowired
+    private ChainClient chainClient;
+
+    @Value("${features.reconciliation:false}")
+    private boolean enabled;
+
+    @Value("${reconciliation.directory:data/reconciliation}")
+    private String directory;
+
+    @Value("${reconciliation.since:2024-01-01T00:00:00}")
+    private String since;
+
+    @Value("${reconciliation.page-size:1000}")
+    private int pageSize;
+
+    @Value("${reconciliation.settle:10m}")
+    private Duration settle;
+
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${reconciliation.max-threads:16}")
+    private int maxThreads;
+
+    @Value("${reconciliation.leaf-size:64}")
+    private int leafSize;
+
+    @Value("${reconciliation.max-rows-per-second:0}")
+    private long maxRowsPerSecond;
+
+    @Value("${reconciliation.lookup-attempts:3}")
+    private int lookupAttempts;
+
+    @Value("${reconciliation.lookup-backoff:500ms}")
+    private Duration lookupBackoff;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private DependencyGuard storeGuard;
+    private ChainClient verifier;
+    private ForkJoinPool pool;
+    private volatile ReconciliationCheckpoint lastCheckpoint;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            logger.info("Reconciliation disabled");
+            return;
+        }
+        storeGuard = dependencyGuards.guard("reconciliation");
+        verifier = new RetryingChainClient(chainClient, lookupAttempts, lookupBackoff.toMillis());
+        // Workers blocked on the chain are compensated with spare threads, up
+        // to max-threads; past that the pool runs with fewer active workers
+        pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("reconciliation-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.setDaemon(true);
+            return thread;
+        }, null, false, 0, Math.max(parallelism, maxThreads), 1, p -> true, 60, TimeUnit.SECONDS);
+        logger.info("Reconciliation enabled: pageSize={}, parallelism={}, maxThreads={}, lookupAttempts={}, chainClient={}",
+            pageSize, parallelism, Math.max(parallelism, maxThreads), lookupAttempts,
+            chainClient.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 0 3 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Resume the unfinished run if there is one, otherwise start a new run up
+     * to now. Returns immediately if a run is already in progress.
+     */
+    public ReconciliationCheckpoint run() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return lastCheckpoint;
+        }
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            Path checkpointFile = dir.resolve("checkpoint.properties");
+
+            ReconciliationCheckpoint checkpoint = ReconciliationCheckpoint.load(checkpointFile);
+            if (checkpoint == null || checkpoint.isComplete()) {
+                // Leave recent rows to the next run; their blockchain processing may still be in flight
+                LocalDateTime until = LocalDateTime.now().minus(settle);
+                LocalDateTime from = checkpoint != null ? checkpoint.getUntil() : LocalDateTime.parse(since);
+                if (!from.isBefore(until)) {
+                    return checkpoint;
+                }
+                checkpoint = new ReconciliationCheckpoint(RUN_ID.format(LocalDateTime.now()), from, until);
+                checkpoint.save(checkpointFile);
+                logger.info("Reconciliation run {} started: from={}, until={}", checkpoint.getRunId(), from, until);
+            } else {
+                logger.info("Reconciliation run {} resumed: from={}, until={}, scanned={}",
+                    checkpoint.getRunId(), checkpoint.getSince(), checkpoint.getUntil(), checkpoint.getScanned());
+            }
+            lastCheckpoint = checkpoint;
+
+            long start = System.nanoTime();
+            long scannedAtStart = checkpoint.getScanned();
+            Path report = dir.resolve("mismatches-" + checkpoint.getRunId() + ".jsonl");
+            truncateReport(report, checkpoint.getReportBytes());
+            while (!checkpoint.isComplete() && !Thread.currentThread().isInterrupted()) {
+                long pageStart = System.nanoTime();
+                int rows = reconcilePage(checkpoint, report);
+                checkpoint.save(checkpointFile);
+                throttle(rows, System.nanoTime() - pageStart);
+            }
+
+            double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+            logger.info("Reconciliation run {} {}: scanned={}, verified={}, mismatches={}, rowsPerHour={}",
+                checkpoint.getRunId(), checkpoint.isComplete() ? "finished" : "stopped",
+                checkpoint.getScanned(), checkpoint.getVerified(), checkpoint.getMismatches(),
+                Math.round((checkpoint.getScanned() - scannedAtStart) / seconds * 3600));
+            return checkpoint;
+        } catch (DependencyUnavailableException | CancellationException e) {
+            // The page in progress was not checkpointed; the next run starts with it
+            logger.warn("Reconciliation run {} stopped before finishing a page: {}",
+                lastCheckpoint != null ? lastCheckpoint.getRunId() : null, e.getMessage());
+            return lastCheckpoint;
+        } catch (Exception e) {
+            logger.error("Reconciliation failed: {}", e.getMessage(), e);
+            return lastCheckpoint;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public ReconciliationCheckpoint getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    /**
+     * Verify the next page and advance the checkpoint past it. A failed
+     * lookup or an interrupt throws before the checkpoint is touched.
+     *
+     * @return the number of rows read
+     */
+    private int reconcilePage(ReconciliationCheckpoint checkpoint, Path report) throws IOException {
+        TransactionPage page = storeGuard.call(() -> transactionRepository.scan(
+            checkpoint.getSince(), checkpoint.getUntil(), checkpoint.getCursor(), pageSize));
+        List<Transaction> rows = page.getTransactions();
+        List<Transaction> confirmed = new ArrayList<>();
+        for (Transaction t : rows) {
+            if ("CONFIRMED".equals(t.getStatus())) {
+                confirmed.add(t);
+            }
+        }
+
+        Queue<Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+        if (!confirmed.isEmpty()) {
+            pool.invoke(new VerifyTask(confirmed, 0, confirmed.size(), leafSize, verifier, mismatches));
+        }
+        long reportBytes = checkpoint.getReportBytes();
+        if (!mismatches.isEmpty()) {
+            reportBytes = writeMismatches(report, mismatches);
+        }
+        checkpoint.completePage(page.getNextCursor(), reportBytes, rows.size(), confirmed.size(), mismatches.size());
+        logger.debug("Reconciled page of run {}: rows={}, confirmed={}, mismatches={}",
+            checkpoint.getRunId(), rows.size(), confirmed.size(), mismatches.size());
+        return rows.size();
+    }
+
+    /**
+     * Append and force the mismatches, so the checkpoint saved next never
+     * records more of the report than is on disk
+     *
+     * @return the report length afterwards
+     */
+    private long writeMismatches(Path report, Queue<Mismatch> mismatches) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Mismatch mismatch : mismatches) {
+            mismatch.appendJson(sb);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        long length;
+        try (FileChannel channel = FileChannel.open(report, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            length = channel.size();
+        }
+        logger.warn("Reconciliation found {} mismatches, see {}", mismatches.size(), report);
+        return length;
+    }
+
+    /**
+     * Drop anything written after the last checkpoint; it belongs to a page
+     * that is about to be verified again
+     */
+    private static void truncateReport(Path report, long length) throws IOException {
+        if (length < 0 || !Files.exists(report)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(report, StandardOpenOption.WRITE)) {
+            if (channel.size() > length) {
+                logger.info("Discarding {} bytes of {} written after the last checkpoint",
+                    channel.size() - length, report);
+                channel.truncate(length);
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Sleep long enough that the job stays under reconciliation.max-rows-per-second
+     */
+    private void throttle(int rows, long elapsedNanos) throws InterruptedException {
+        if (maxRowsPerSecond <= 0 || rows == 0) {
+            return;
+        }
+        long minNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        if (minNanos > elapsedNanos) {
+            TimeUnit.NANOSECONDS.sleep(minNanos - elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.reconciliation;
+
+/**
+ * Retries a failed chain query with doubling delays. Interrupts are passed
+ * straight through so a shutdown is not held up by the retries.
+ */
+final class RetryingChainClient implements ChainClient {
+
+    private final ChainClient delegate;
+    private final int attempts;
+    private final long backoffMillis;
+
+    RetryingChainClient(ChainClient delegate, int attempts, long backoffMillis) {
+        this.delegate = delegate;
+        this.attempts = Math.max(1, attempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Override
+    public boolean exists(String transactionHash) throws Exception {
+        long delay = backoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return delegate.exists(transactionHash);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                Thread.sleep(delay);
+                delay *= 2;
+            }
+        }
+    }
+}
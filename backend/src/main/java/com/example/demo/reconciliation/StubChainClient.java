@@ -0,0 +1,26 @@
+package com.example.demo.reconciliation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for a chain node, matching the simulated processing in
+ * {@code TransactionService}: every well-formed hash is treated as mined.
+ * An optional delay approximates the round trip of a real node.
+ */
+@Component
+@ConditionalOnProperty(name = "reconciliation.chain-client", havingValue = "stub", matchIfMissing = true)
+public class StubChainClient implements ChainClient {
+
+    @Value("${reconciliation.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Override
+    public boolean exists(String transactionHash) throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        return TransactionHashes.isWellFormed(transactionHash);
+    }
+}
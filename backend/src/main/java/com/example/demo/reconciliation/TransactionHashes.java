@@ -0,0 +1,22 @@
+package com.example.demo.reconciliation;
+
+final class TransactionHashes {
+
+    private TransactionHashes() {
+    }
+
+    /**
+     * A hash as written by blockchain processing: {@code 0x} followed by hex digits
+     */
+    static boolean isWellFormed(String hash) {
+        if (hash == null || hash.length() < 3 || !hash.startsWith("0x")) {
+            return false;
+        }
+        for (int i = 2; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.reconciliation;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.resilience.DependencyUnavailableException;
+import com.example.demo.resilience.DependencyUnavailableException.Reason;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verifies a slice of a page, splitting in half until the slice is small
+ * enough to check directly. Chain lookups dominate the cost, so the leaves
+ * are kept small to spread slow calls across workers, and each lookup runs as
+ * a {@link ForkJoinPool.ManagedBlocker} so the pool can keep other workers
+ * busy while one waits on the chain.
+ *
+ * A lookup that still fails after the client's retries, or an interrupt,
+ * fails the whole task with a {@link DependencyUnavailableException}. The
+ * page is then left unfinished and verified again by the next run rather
+ * than reported as a mismatch.
+ */
+final class VerifyTask extends RecursiveAction {
+
+    private final List<Transaction> transactions;
+    private final int from;
+    private final int to;
+    private final int leafSize;
+    private final ChainClient chainClient;
+    private final Queue<Mismatch> mismatches;
+
+    VerifyTask(List<Transaction> transactions, int from, int to, int leafSize,
+               ChainClient chainClient, Queue<Mismatch> mismatches) {
+        this.transactions = transactions;
+        this.from = from;
+        this.to = to;
+        this.leafSize = leafSize;
+        this.chainClient = chainClient;
+        this.mismatches = mismatches;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= leafSize) {
+            for (int i = from; i < to; i++) {
+                verify(transactions.get(i));
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new VerifyTask(transactions, from, mid, leafSize, chainClient, mismatches),
+                  new VerifyTask(transactions, mid, to, leafSize, chainClient, mismatches));
+    }
+
+    private void verify(Transaction transaction) {
+        String hash = transaction.getTransactionHash();
+        if (hash == null || hash.isEmpty()) {
+            mismatches.add(new Mismatch(transaction, Mismatch.Reason.MISSING_HASH, null));
+            return;
+        }
+        if (!TransactionHashes.isWellFormed(hash)) {
+            mismatches.add(new Mismatch(transaction, Mismatch.Reason.MALFORMED_HASH, null));
+            return;
+        }
+        ChainLookup lookup = new ChainLookup(chainClient, hash);
+        try {
+            ForkJoinPool.managedBlock(lookup);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException("chain", Reason.INTERRUPTED, 1, e);
+        }
+        if (lookup.failure != null) {
+            throw new DependencyUnavailableException("chain", Reason.FAILED, 1, lookup.failure);
+        }
+        if (!lookup.exists) {
+            mismatches.add(new Mismatch(transaction, Mismatch.Reason.NOT_ON_CHAIN, null));
+        }
+    }
+
+    private static final class ChainLookup implements ForkJoinPool.ManagedBlocker {
+        private final ChainClient chainClient;
+        private final String hash;
+        private boolean done;
+        boolean exists;
+        Exception failure;
+
+        ChainLookup(ChainClient chainClient, String hash) {
+            this.chainClient = chainClient;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            try {
+                exists = chainClient.exists(hash);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
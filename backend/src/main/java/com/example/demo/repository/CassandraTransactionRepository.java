@@ -0,0 +1,220 @@
+package com.example.demo.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.example.demo.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link TransactionRepository} on the Cassandra/Astra cluster, enabled with
+ * {@code storage.engine=cassandra}. Charity scans use a secondary index and
+ * date-range scans filter server-side, so both fan out across the cluster.
+ * {@link #scan} pages through the token ring instead, so a long scan is one
+ * pass over the table however many pages it takes.
+ */
+@Repository
+@ConditionalOnProperty(name = "storage.engine", havingValue = "cassandra")
+public class CassandraTransactionRepository implements TransactionRepository {
+
+    private static final String COLUMNS = "id, charity_id, donor_name, amount, payment_method, status, "
+        + "message, description, transaction_hash, created_at, updated_at";
+
+    private final CqlSession session;
+
+    @Value("${storage.cassandra.max-concurrent-writes:256}")
+    private int maxConcurrentWrites;
+
+    /** Bounds async inserts across all concurrent saveAll calls */
+    private Semaphore writePermits;
+
+    private PreparedStatement insert;
+    private PreparedStatement selectById;
+    private PreparedStatement selectAll;
+    private PreparedStatement selectByCharity;
+    private PreparedStatement selectByCreatedAt;
+    private PreparedStatement scanAll;
+    private PreparedStatement scanByCreatedAt;
+    private PreparedStatement deleteById;
+    private PreparedStatement countAll;
+
+    public CassandraTransactionRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        writePermits = new Semaphore(maxConcurrentWrites);
+        session.execute("CREATE TABLE IF NOT EXISTS transactions ("
+            + "id text PRIMARY KEY, charity_id text, donor_name text, amount decimal, payment_method text, "
+            + "status text, message text, description text, transaction_hash text, "
+            + "created_at timestamp, updated_at timestamp)");
+        session.execute("CREATE INDEX IF NOT EXISTS transactions_charity_idx ON transactions (charity_id)");
+
+        insert = session.prepare("INSERT INTO transactions (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        selectById = session.prepare("SELECT " + COLUMNS + " FROM transactions WHERE id = ?");
+        selectAll = session.prepare("SELECT " + COLUMNS + " FROM transactions");
+        selectByCharity = session.prepare("SELECT " + COLUMNS + " FROM transactions WHERE charity_id = ?");
+        selectByCreatedAt = session.prepare("SELECT " + COLUMNS + " FROM transactions "
+            + "WHERE created_at >= ? AND created_at <= ? ALLOW FILTERING");
+        scanAll = session.prepare("SELECT token(id) AS scan_token, " + COLUMNS + " FROM transactions "
+            + "WHERE token(id) > ? LIMIT ?");
+        scanByCreatedAt = session.prepare("SELECT token(id) AS scan_token, " + COLUMNS + " FROM transactions "
+            + "WHERE token(id) > ? AND created_at >= ? AND created_at < ? LIMIT ? ALLOW FILTERING");
+        deleteById = session.prepare("DELETE FROM transactions WHERE id = ?");
+        countAll = session.prepare("SELECT COUNT(*) FROM transactions");
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return map(session.execute(selectAll.bind()));
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        Row row = session.execute(selectById.bind(id)).one();
+        return Optional.ofNullable(row != null ? toTransaction(row) : null);
+    }
+
+    @Override
+    public Transaction save(Transaction t) {
+        session.execute(bindInsert(t));
+        return t;
+    }
+
+    /**
+     * Rows go to different partitions, so they are sent as concurrent async
+     * inserts rather than as a multi-partition batch. At most
+     * {@code storage.cassandra.max-concurrent-writes} inserts are outstanding
+     * across all callers, well under the driver's per-connection request
+     * limit, so bulk imports with several batches in flight cannot starve live
+     * requests or trip BusyConnectionException.
+     */
+    @Override
+    public void saveAll(List<Transaction> transactions) {
+        CompletableFuture<?>[] inserts = new CompletableFuture<?>[transactions.size()];
+        try {
+            for (int i = 0; i < inserts.length; i++) {
+                BoundStatement statement = bindInsert(transactions.get(i));
+                writePermits.acquire();
+                try {
+                    inserts[i] = session.executeAsync(statement).toCompletableFuture()
+                        .whenComplete((result, error) -> writePermits.release());
+                } catch (RuntimeException e) {
+                    writePermits.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving transactions", e);
+        }
+        CompletableFuture.allOf(inserts).join();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        session.execute(deleteById.bind(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return session.execute(selectById.bind(id)).one() != null;
+    }
+
+    @Override
+    public long count() {
+        Row row = session.execute(countAll.bind()).one();
+        return row != null ? row.getLong(0) : 0;
+    }
+
+    @Override
+    public List<Transaction> findByCharityId(String charityId) {
+        List<Transaction> transactions = map(session.execute(selectByCharity.bind(charityId)));
+        transactions.sort(Comparator.comparing(Transaction::getCreatedAt,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        return transactions;
+    }
+
+    @Override
+    public List<Transaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end) {
+        List<Transaction> transactions = map(session.execute(selectByCreatedAt.bind(toInstant(start), toInstant(end))));
+        transactions.sort(Comparator.comparing(Transaction::getCreatedAt));
+        return transactions;
+    }
+
+    /**
+     * The cursor is the token of the last row returned; Murmur3 never assigns
+     * Long.MIN_VALUE, so the first page starts just above it
+     */
+    @Override
+    public TransactionPage scan(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Scan bounds must both be set or both be null");
+        }
+        long after = cursor != null ? Long.parseLong(cursor) : Long.MIN_VALUE;
+        BoundStatement statement = start != null
+            ? scanByCreatedAt.bind(after, toInstant(start), toInstant(end), limit)
+            : scanAll.bind(after, limit);
+        List<Transaction> transactions = new ArrayList<>();
+        long lastToken = after;
+        for (Row row : session.execute(statement)) {
+            transactions.add(toTransaction(row));
+            lastToken = row.getLong("scan_token");
+        }
+        return new TransactionPage(transactions, transactions.size() < limit ? null : Long.toString(lastToken));
+    }
+
+    private BoundStatement bindInsert(Transaction t) {
+        return insert.bind(
+            t.getId(), t.getCharityId(), t.getDonorName(), t.getAmount(), t.getPaymentMethod(),
+            t.getStatus(), t.getMessage(), t.getDescription(), t.getTransactionHash(),
+            toInstant(t.getCreatedAt()), toInstant(t.getUpdatedAt()));
+    }
+
+    private List<Transaction> map(Iterable<Row> rows) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Row row : rows) {
+            transactions.add(toTransaction(row));
+        }
+        return transactions;
+    }
+
+    private Transaction toTransaction(Row row) {
+        Transaction t = new Transaction();
+        t.setId(row.getString("id"));
+        t.setCharityId(row.getString("charity_id"));
+        t.setDonorName(row.getString("donor_name"));
+        t.setAmount(row.getBigDecimal("amount"));
+        t.setPaymentMethod(row.getString("payment_method"));
+        t.setStatus(row.getString("status"));
+        t.setMessage(row.getString("message"));
+        t.setDescription(row.getString("description"));
+        t.setTransactionHash(row.getString("transaction_hash"));
+        t.setCreatedAt(toLocalDateTime(row.getInstant("created_at")));
+        t.setUpdatedAt(toLocalDateTime(row.getInstant("updated_at")));
+        return t;
+    }
+
+    private static Instant toInstant(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant value) {
+        return value != null ? LocalDateTime.ofInstant(value, ZoneOffset.UTC) : null;
+    }
+}
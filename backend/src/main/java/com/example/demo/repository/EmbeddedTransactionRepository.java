@@ -0,0 +1,132 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.storage.LogStructuredStore;
+import com.example.demo.storage.StorageException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link TransactionRepository} backed by the embedded {@link LogStructuredStore}.
+ * Default engine; used for single-node deployments and tests.
+ */
+@Repository
+@ConditionalOnProperty(name = "storage.engine", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedTransactionRepository implements TransactionRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedTransactionRepository.class);
+
+    @Value("${storage.embedded.directory:data/transactions}")
+    private String directory;
+
+    @Value("${storage.embedded.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${storage.embedded.sync-on-write:false}")
+    private boolean syncOnWrite;
+
+    @Value("${storage.embedded.compaction.min-garbage-ratio:0.5}")
+    private double minGarbageRatio;
+
+    private LogStructuredStore store;
+
+    @PostConstruct
+    public void open() throws IOException {
+        store = LogStructuredStore.open(Paths.get(directory), segmentSizeMb * 1024 * 1024, syncOnWrite);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return store.findAll();
+    }
+
+    @Override
+    public Optional<Transaction> findById(String id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        store.put(transaction);
+        return transaction;
+    }
+
+    @Override
+    public void saveAll(List<Transaction> transactions) {
+        store.putAll(transactions);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.delete(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.contains(id);
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public List<Transaction> findByCharityId(String charityId) {
+        return store.findByCharity(charityId);
+    }
+
+    @Override
+    public List<Transaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end) {
+        return store.findByCreatedAtBetween(start, end);
+    }
+
+    @Override
+    public TransactionPage scan(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("Scan bounds must both be set or both be null");
+        }
+        List<Transaction> page = store.scanByCreatedAt(start, end, cursor, limit);
+        String next = page.size() < limit ? null : LogStructuredStore.cursorOf(page.get(page.size() - 1));
+        return new TransactionPage(page, next);
+    }
+
+    /**
+     * Flush buffered writes when sync-on-write is off
+     */
+    @Scheduled(fixedDelayString = "${storage.embedded.sync-interval-ms:1000}")
+    public void sync() {
+        if (!syncOnWrite) {
+            store.sync();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.embedded.compaction.interval-ms:300000}")
+    public void compact() {
+        try {
+            int compacted = store.compact(minGarbageRatio);
+            if (compacted > 0) {
+                logger.info("Compacted {} transaction log segments", compacted);
+            }
+        } catch (IOException | StorageException e) {
+            logger.error("Transaction log compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
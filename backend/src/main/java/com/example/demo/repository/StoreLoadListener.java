@@ -0,0 +1,26 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+
+/**
+ * A view built from the store at startup. {@link StoreLoader} reads the store
+ * once and hands every row to each listener, so the views do not each hold
+ * their own copy of the table while they load.
+ */
+public interface StoreLoadListener {
+
+    /**
+     * Name used in log messages
+     */
+    String loadName();
+
+    /**
+     * Called for every stored transaction, from the loader thread
+     */
+    void loaded(Transaction transaction);
+
+    /**
+     * Called once every row has been passed to {@link #loaded}
+     */
+    void loadFinished();
+}
@@ -0,0 +1,85 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the store once after startup, off the main thread, and feeds every
+ * row to each {@link StoreLoadListener} (search index, leaderboards,
+ * rollups). Rows are read a page at a time with
+ * {@link TransactionRepository#scan}, so at most one page is in memory no
+ * matter how many views are loading. A listener that fails is dropped and
+ * never marked loaded; the others carry on.
+ */
+@Component
+public class StoreLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreLoader.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired(required = false)
+    private List<StoreLoadListener> listeners = List.of();
+
+    @Value("${storage.load-page-size:1000}")
+    private int pageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "store-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        List<StoreLoadListener> active = new ArrayList<>(listeners);
+        long rows = 0;
+        try {
+            String cursor = null;
+            do {
+                TransactionPage page = transactionRepository.scan(null, null, cursor, pageSize);
+                for (Transaction transaction : page.getTransactions()) {
+                    feed(active, transaction);
+                }
+                rows += page.getTransactions().size();
+                cursor = page.getNextCursor();
+            } while (cursor != null && !active.isEmpty());
+        } catch (Exception e) {
+            logger.error("Failed to load from the store after {} transactions: {}", rows, e.getMessage(), e);
+            return;
+        }
+
+        for (StoreLoadListener listener : active) {
+            try {
+                listener.loadFinished();
+            } catch (Exception e) {
+                logger.error("Failed to finish loading {}: {}", listener.loadName(), e.getMessage(), e);
+            }
+        }
+        logger.info("Loaded {} from the store: transactions={}, took={}ms",
+            active.stream().map(StoreLoadListener::loadName).toList(), rows, System.currentTimeMillis() - start);
+    }
+
+    private static void feed(List<StoreLoadListener> active, Transaction transaction) {
+        for (int i = 0; i < active.size(); i++) {
+            StoreLoadListener listener = active.get(i);
+            try {
+                listener.loaded(transaction);
+            } catch (Exception e) {
+                logger.error("Failed to load {}: {}", listener.loadName(), e.getMessage(), e);
+                active.remove(i--);
+            }
+        }
+    }
+}
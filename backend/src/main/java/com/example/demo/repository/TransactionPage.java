@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of a {@link TransactionRepository#scan}
+ */
+public final class TransactionPage {
+
+    private final List<Transaction> transactions;
+    private final String nextCursor;
+
+    public TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+
+    /**
+     * Cursor for the following page, or null if this is the last one
+     */
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+}
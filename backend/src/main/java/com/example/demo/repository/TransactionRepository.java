@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for donation transactions. The embedded log-structured store is the
+ * default implementation; set {@code storage.engine=cassandra} to use the
+ * Cassandra/Astra cluster instead.
+ */
+public interface TransactionRepository {
+
+    List<Transaction> findAll();
+
+    Optional<Transaction> findById(String id);
+
+    Transaction save(Transaction transaction);
+
+    /**
+     * Store a batch of transactions; cheaper than one {@link #save} per row
+     */
+    void saveAll(List<Transaction> transactions);
+
+    void deleteById(String id);
+
+    boolean existsById(String id);
+
+    long count();
+
+    /**
+     * Transactions for a charity, oldest first
+     */
+    List<Transaction> findByCharityId(String charityId);
+
+    /**
+     * Transactions created within the range, inclusive on both ends, oldest first
+     */
+    List<Transaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * One page of a resumable scan over transactions created in [start, end),
+     * or over every transaction when both bounds are null. Pass null for the
+     * first page and the previous page's cursor after that; the order is
+     * stable, so a cursor can be saved and the scan continued later. Unlike
+     * {@link #findByCreatedAtBetween}, the whole scan is a single pass over
+     * the store on every engine.
+     */
+    TransactionPage scan(LocalDateTime start, LocalDateTime end, String cursor, int limit);
+}
@@ -0,0 +1,165 @@
+package com.example.demo.resilience;
+
+/**
+ * Count-based circuit breaker that trips on either the failure rate or the
+ * slow-call rate over the last {@code windowSize} calls.
+ *
+ * While OPEN all calls are refused. After {@code openDurationNanos} a limited
+ * number of trial calls are let through (HALF_OPEN); if they all succeed fast
+ * the breaker closes, otherwise it opens again.
+ *
+ * Every state change starts a new generation. A permit carries the generation
+ * it was issued in, and results reported against an older generation are
+ * dropped, so a slow call started while CLOSED cannot be counted as a
+ * HALF_OPEN trial.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte OK = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILED = 2;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openDurationNanos;
+    private final int halfOpenPermits;
+
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                          int slowCallRateThreshold, long slowCallNanos,
+                          long openDurationNanos, int halfOpenPermits) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenPermits = halfOpenPermits;
+        this.outcomes = new byte[windowSize];
+    }
+
+    /**
+     * Ask for permission to make a call. Returns the permit's generation, or
+     * -1 when the call is refused. Every granted permit must be followed by
+     * {@link #onResult} or {@link #onIgnored} with that generation.
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return -1;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenIssued = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenIssued >= halfOpenPermits) {
+                return -1;
+            }
+            halfOpenIssued++;
+        }
+        return generation;
+    }
+
+    public synchronized void onResult(long permit, long elapsedNanos, boolean failed) {
+        if (permit != generation) {
+            // Late result of a call started before the last state change
+            return;
+        }
+        byte outcome = failed ? FAILED : (elapsedNanos >= slowCallNanos ? SLOW : OK);
+
+        if (state == State.HALF_OPEN) {
+            if (outcome != OK) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenPermits) {
+                close();
+            }
+            return;
+        }
+
+        if (recorded == windowSize) {
+            evict(outcomes[next]);
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        if (outcome == FAILED) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+        next = (next + 1) % windowSize;
+
+        if (recorded >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * recorded
+                    || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+            open();
+        }
+    }
+
+    /**
+     * Give back a permit for a call that never reached the dependency
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && halfOpenIssued > 0) {
+            halfOpenIssued--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Seconds until an open breaker lets a trial call through
+     */
+    public synchronized long remainingOpenSeconds() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+        return Math.max(0, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private void evict(byte outcome) {
+        if (outcome == FAILED) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        transition(State.CLOSED);
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+    }
+}
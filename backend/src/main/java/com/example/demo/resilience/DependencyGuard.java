@@ -0,0 +1,119 @@
+package com.example.demo.resilience;
+
+import com.example.demo.resilience.DependencyUnavailableException.Reason;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Isolates calls to one dependency behind a bulkhead, a circuit breaker and a
+ * deadline.
+ *
+ * Calls run on a dedicated pool whose size is the concurrency cap; when every
+ * worker is busy the call is rejected immediately rather than queued. The
+ * request thread waits at most {@code deadlineMillis} for the result, so a
+ * slow dependency cannot pin request threads beyond that bound.
+ *
+ * Only failures that {@code isOutage} classifies as the dependency being
+ * unreachable or overloaded count against the breaker and surface as
+ * {@link DependencyUnavailableException}. Anything else (a bug, bad data) is
+ * rethrown unchanged, so it is reported as an error rather than an outage.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final long deadlineMillis;
+    private final Predicate<Throwable> isOutage;
+
+    public DependencyGuard(String name, int maxConcurrentCalls, long deadlineMillis,
+                           CircuitBreaker circuitBreaker, Predicate<Throwable> isOutage) {
+        this.name = name;
+        this.deadlineMillis = deadlineMillis;
+        this.circuitBreaker = circuitBreaker;
+        this.isOutage = isOutage;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            maxConcurrentCalls, maxConcurrentCalls,
+            60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "guard-" + name + "-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> T call(Callable<T> action) {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit < 0) {
+            throw new DependencyUnavailableException(name, Reason.CIRCUIT_OPEN,
+                circuitBreaker.remainingOpenSeconds(), null);
+        }
+
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(action);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.onIgnored(permit);
+            throw new DependencyUnavailableException(name, Reason.BULKHEAD_FULL, 1, e);
+        }
+
+        try {
+            T result = future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onResult(permit, System.nanoTime() - start, false);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onResult(permit, System.nanoTime() - start, true);
+            throw new DependencyUnavailableException(name, Reason.DEADLINE_EXCEEDED, 1, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            boolean outage = isOutage.test(cause);
+            circuitBreaker.onResult(permit, System.nanoTime() - start, outage);
+            if (outage) {
+                throw new DependencyUnavailableException(name, Reason.FAILED, 1, cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Call to '" + name + "' failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.onIgnored(permit);
+            throw new DependencyUnavailableException(name, Reason.INTERRUPTED, 1, e);
+        }
+    }
+
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public String getName() { return name; }
+    public CircuitBreaker.State getState() { return circuitBreaker.getState(); }
+    public int getActiveCalls() { return executor.getActiveCount(); }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
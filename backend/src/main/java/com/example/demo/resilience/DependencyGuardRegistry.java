@@ -0,0 +1,119 @@
+package com.example.demo.resilience;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * One {@link DependencyGuard} per named dependency, configured from
+ * {@code resilience.dependencies.<name>.*} with shared defaults.
+ *
+ * {@code outage-exceptions} lists the exception types (anywhere in the cause
+ * chain) that mean the dependency is unavailable; they are added to the
+ * built-in I/O, timeout and driver connectivity types. Types that are not on
+ * the classpath are skipped.
+ */
+@Component
+public class DependencyGuardRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGuardRegistry.class);
+    private static final String PREFIX = "resilience.dependencies.";
+
+    private static final String[] OUTAGE_EXCEPTIONS = {
+        "java.io.IOException",
+        "java.io.UncheckedIOException",
+        "java.util.concurrent.TimeoutException",
+        "com.example.demo.storage.StorageException",
+        "com.datastax.oss.driver.api.core.AllNodesFailedException",
+        "com.datastax.oss.driver.api.core.DriverTimeoutException",
+        "com.datastax.oss.driver.api.core.connection.BusyConnectionException",
+        "com.datastax.oss.driver.api.core.connection.ClosedConnectionException",
+        "com.datastax.oss.driver.api.core.servererrors.QueryExecutionException",
+        "org.springframework.dao.TransientDataAccessException",
+        "org.springframework.dao.DataAccessResourceFailureException",
+        "org.springframework.web.client.ResourceAccessException",
+        "org.springframework.web.client.HttpServerErrorException"
+    };
+
+    @Autowired
+    private Environment environment;
+
+    private final Map<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+
+    public DependencyGuard guard(String name) {
+        return guards.computeIfAbsent(name, this::create);
+    }
+
+    public Map<String, DependencyGuard> getGuards() {
+        return guards;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        guards.values().forEach(DependencyGuard::shutdown);
+    }
+
+    private DependencyGuard create(String name) {
+        int maxConcurrentCalls = property(name, "max-concurrent-calls", 32);
+        long deadlineMs = property(name, "deadline-ms", 2000L);
+        long slowCallMs = property(name, "slow-call-ms", 500L);
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+            property(name, "window-size", 50),
+            property(name, "minimum-calls", 10),
+            property(name, "failure-rate-threshold", 50),
+            property(name, "slow-call-rate-threshold", 60),
+            TimeUnit.MILLISECONDS.toNanos(slowCallMs),
+            TimeUnit.MILLISECONDS.toNanos(property(name, "open-duration-ms", 10_000L)),
+            property(name, "half-open-calls", 3));
+
+        logger.info("Dependency guard '{}': maxConcurrentCalls={}, deadlineMs={}, slowCallMs={}",
+            name, maxConcurrentCalls, deadlineMs, slowCallMs);
+        return new DependencyGuard(name, maxConcurrentCalls, deadlineMs, circuitBreaker, outagePredicate(name));
+    }
+
+    private Predicate<Throwable> outagePredicate(String name) {
+        List<String> typeNames = new ArrayList<>(List.of(OUTAGE_EXCEPTIONS));
+        typeNames.addAll(List.of(environment.getProperty(PREFIX + name + ".outage-exceptions", String[].class,
+            environment.getProperty(PREFIX + "default.outage-exceptions", String[].class, new String[0]))));
+
+        List<Class<?>> types = new ArrayList<>();
+        for (String typeName : typeNames) {
+            try {
+                types.add(Class.forName(typeName.trim(), false, getClass().getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                logger.debug("Outage exception type {} not on the classpath", typeName);
+            }
+        }
+        return error -> {
+            for (Throwable t = error; t != null; t = t.getCause()) {
+                for (Class<?> type : types) {
+                    if (type.isInstance(t)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    private int property(String name, String key, int defaultValue) {
+        return environment.getProperty(PREFIX + name + "." + key, Integer.class,
+            environment.getProperty(PREFIX + "default." + key, Integer.class, defaultValue));
+    }
+
+    private long property(String name, String key, long defaultValue) {
+        return environment.getProperty(PREFIX + name + "." + key, Long.class,
+            environment.getProperty(PREFIX + "default." + key, Long.class, defaultValue));
+    }
+}
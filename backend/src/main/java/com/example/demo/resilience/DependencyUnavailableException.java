@@ -0,0 +1,32 @@
+package com.example.demo.resilience;
+
+/**
+ * Thrown when a guarded dependency call is refused or abandoned, so callers can
+ * answer quickly (503 or a stale read) instead of holding a request thread.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL,
+        DEADLINE_EXCEEDED,
+        FAILED,
+        INTERRUPTED,
+        NOT_READY
+    }
+
+    private final String dependency;
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public DependencyUnavailableException(String dependency, Reason reason, long retryAfterSeconds, Throwable cause) {
+        super("Dependency '" + dependency + "' unavailable: " + reason, cause);
+        this.dependency = dependency;
+        this.reason = reason;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public String getDependency() { return dependency; }
+    public Reason getReason() { return reason; }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
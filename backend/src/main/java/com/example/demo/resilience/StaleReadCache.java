@@ -0,0 +1,65 @@
+package com.example.demo.resilience;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last-known-good results of read endpoints, served (and flagged stale) when
+ * the backing dependency is unavailable.
+ */
+@Component
+public class StaleReadCache {
+
+    static final String STALE_ATTRIBUTE = StaleReadCache.class.getName() + ".stale";
+
+    @Value("${resilience.stale-reads.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resilience.stale-reads.max-entries:1000}")
+    private long maxEntries;
+
+    @Value("${resilience.stale-reads.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    private Cache<String, Object> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(maxAgeSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    public void put(String key, Object value) {
+        if (enabled && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Return the last good value for the key and flag the current request as
+     * stale, or null when there is nothing to fall back to
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getStale(String key) {
+        if (!enabled) {
+            return null;
+        }
+        T value = (T) cache.getIfPresent(key);
+        if (value != null) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes != null) {
+                attributes.setAttribute(STALE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.resilience;
+
+import com.example.demo.controller.TransactionController.ApiResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses built from {@link StaleReadCache} fallbacks: sets the
+ * {@code stale} flag on the body and adds an HTTP {@code Warning: 110} header.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null
+                || attributes.getAttribute(StaleReadCache.STALE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null) {
+            return body;
+        }
+        if (body instanceof ApiResponse) {
+            ((ApiResponse<?>) body).setStale(Boolean.TRUE);
+        }
+        response.getHeaders().add("Warning", "110 - \"Response is Stale\"");
+        return body;
+    }
+}
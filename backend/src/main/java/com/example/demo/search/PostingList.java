@@ -0,0 +1,135 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only, compressed list of ascending document ids. Each id is stored as
+ * the varint-encoded gap from the previous one, so dense lists cost about one
+ * byte per posting.
+ *
+ * Every {@link #SKIP_INTERVAL} postings a skip entry records the document id
+ * and the byte offset just past it. {@link Cursor#advance} binary-searches
+ * these, so intersecting a rare trigram with a common one decodes about
+ * {@code SKIP_INTERVAL} postings per step instead of every posting in between.
+ */
+final class PostingList {
+
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    static final int SKIP_INTERVAL = 128;
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int count;
+    private int lastDoc = -1;
+
+    // Parallel arrays: the doc id of every SKIP_INTERVAL-th posting and the offset after it
+    private int[] skipDocs = new int[0];
+    private int[] skipOffsets = new int[0];
+    private int skips;
+
+    /**
+     * Append a document id; ids must be added in ascending order
+     */
+    void add(int doc) {
+        if (doc <= lastDoc) {
+            if (doc == lastDoc) {
+                return;
+            }
+            throw new IllegalArgumentException("Document ids must be ascending");
+        }
+        int gap = doc - lastDoc;
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((gap & ~0x7F) != 0) {
+            data[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+        lastDoc = doc;
+        count++;
+        if (count % SKIP_INTERVAL == 0) {
+            if (skips == skipDocs.length) {
+                skipDocs = Arrays.copyOf(skipDocs, Math.max(4, skips * 2));
+                skipOffsets = Arrays.copyOf(skipOffsets, skipDocs.length);
+            }
+            skipDocs[skips] = doc;
+            skipOffsets[skips] = length;
+            skips++;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    final class Cursor {
+        private int position;
+        private int doc = -1;
+
+        int doc() {
+            return doc;
+        }
+
+        int next() {
+            if (position >= length) {
+                doc = NO_MORE_DOCS;
+                return doc;
+            }
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += gap;
+            return doc;
+        }
+
+        /**
+         * Move to the first document id at or after the target
+         */
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            // Jump to the last skip entry before the target, if it is ahead of us
+            int skip = lastSkipBefore(target);
+            if (skip >= 0 && skipDocs[skip] > doc) {
+                doc = skipDocs[skip];
+                position = skipOffsets[skip];
+            }
+            while (doc < target) {
+                next();
+            }
+            return doc;
+        }
+
+        private int lastSkipBefore(int target) {
+            int low = 0;
+            int high = skips - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (skipDocs[mid] < target) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.StoreLoadListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the search index from the shared startup pass over the store and
+ * periodically drops retired documents.
+ */
+@Component
+public class SearchIndexLoader implements StoreLoadListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexLoader.class);
+
+    @Autowired
+    private TransactionSearchIndex searchIndex;
+
+    @Value("${search.rebuild.max-retired-ratio:0.3}")
+    private double maxRetiredRatio;
+
+    @Scheduled(fixedDelayString = "${search.rebuild.interval-ms:600000}")
+    public void rebuildIfFragmented() {
+        if (searchIndex.isReady() && searchIndex.rebuildIfFragmented(maxRetiredRatio)) {
+            logger.info("Rebuilt search index: documents={}, postingBytes={}",
+                searchIndex.size(), searchIndex.postingBytes());
+        }
+    }
+
+    @Override
+    public String loadName() {
+        return "search index";
+    }
+
+    @Override
+    public void loaded(Transaction transaction) {
+        searchIndex.indexIfAbsent(transaction);
+    }
+
+    @Override
+    public void loadFinished() {
+        searchIndex.markReady();
+        logger.info("Search index loaded: documents={}, postingBytes={}",
+            searchIndex.size(), searchIndex.postingBytes());
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over donor name and message.
+ *
+ * Text is lower-cased and reduced to letters and digits. Each field is indexed
+ * as character trigrams. Documents get dense ascending ids so
+ * posting lists stay append-only and delta-compressed; an update retires the
+ * old id and indexes the document under a new one. Retired ids are dropped by
+ * {@link #rebuildIfFragmented}.
+ *
+ * A query matches when every term of three or more characters is a substring
+ * of the donor name or of the message, and every shorter term is a word prefix
+ * in either. A query needs at least one term of {@link #MIN_TERM_LENGTH}
+ * characters: trigram intersection over those terms yields the candidates, and
+ * the short terms are only checked against each candidate's normalized text,
+ * so no query has to enumerate every document.
+ */
+@Component
+public class TransactionSearchIndex {
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> trigrams = new HashMap<>();
+    private final Map<String, Integer> docByTransactionId = new HashMap<>();
+    private final List<String> transactionIds = new ArrayList<>();
+    private final List<String> charityIds = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final BitSet retired = new BitSet();
+    private int retiredCount;
+
+    // Initial load from the store; ids removed meanwhile must not be re-added
+    private volatile boolean ready;
+    private final Set<String> removedDuringLoad = new HashSet<>();
+
+    /**
+     * Add or refresh a transaction. Unchanged text is a no-op.
+     */
+    public void index(Transaction transaction) {
+        String text = normalize(transaction.getDonorName()) + FIELD_SEPARATOR + normalize(transaction.getMessage());
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByTransactionId.get(transaction.getId());
+            if (existing != null) {
+                if (text.equals(texts.get(existing))
+                        && equalsNullable(transaction.getCharityId(), charityIds.get(existing))) {
+                    return;
+                }
+                retire(existing);
+            }
+            add(transaction.getId(), transaction.getCharityId(), text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a transaction from the initial load unless a live write already
+     * indexed or removed it
+     */
+    public void indexIfAbsent(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            if (docByTransactionId.containsKey(transaction.getId())
+                    || removedDuringLoad.contains(transaction.getId())) {
+                return;
+            }
+            add(transaction.getId(), transaction.getCharityId(),
+                normalize(transaction.getDonorName()) + FIELD_SEPARATOR + normalize(transaction.getMessage()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void remove(String transactionId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedDuringLoad.add(transactionId);
+            }
+            Integer doc = docByTransactionId.remove(transactionId);
+            if (doc != null) {
+                retire(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the query has a term long enough to drive a search
+     */
+    public static boolean isSearchable(String query) {
+        for (String term : normalize(query).split(" ")) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Transaction ids matching every term of the query, in indexing order.
+     * Returns nothing for a query without a term of {@link #MIN_TERM_LENGTH}
+     * characters.
+     */
+    public List<String> search(String query, String charityId, int offset, int limit) {
+        String[] terms = normalize(query).split(" ");
+        List<String> result = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if (limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> trigramLists = new ArrayList<>();
+            for (String term : terms) {
+                for (int i = 0; i + 3 <= term.length(); i++) {
+                    PostingList list = trigrams.get(term.substring(i, i + 3));
+                    if (list == null) {
+                        return result;
+                    }
+                    trigramLists.add(list);
+                }
+            }
+            if (trigramLists.isEmpty()) {
+                return result;
+            }
+
+            int skipped = 0;
+            DocIterator candidates = intersection(trigramLists);
+            for (int doc = candidates.next(); doc != PostingList.NO_MORE_DOCS; doc = candidates.next()) {
+                if (retired.get(doc)
+                        || (charityId != null && !charityId.equals(charityIds.get(doc)))
+                        || !matches(texts.get(doc), terms)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(transactionIds.get(doc));
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByTransactionId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-number live documents and rebuild the posting lists once the share of
+     * retired ids passes the threshold.
+     *
+     * @return true if the index was rebuilt
+     */
+    public boolean rebuildIfFragmented(double maxRetiredRatio) {
+        lock.writeLock().lock();
+        try {
+            if (transactionIds.isEmpty() || (double) retiredCount / transactionIds.size() < maxRetiredRatio) {
+                return false;
+            }
+            List<String> ids = new ArrayList<>(transactionIds);
+            List<String> charities = new ArrayList<>(charityIds);
+            List<String> oldTexts = new ArrayList<>(texts);
+            BitSet oldRetired = (BitSet) retired.clone();
+
+            trigrams.clear();
+            docByTransactionId.clear();
+            transactionIds.clear();
+            charityIds.clear();
+            texts.clear();
+            retired.clear();
+            retiredCount = 0;
+
+            for (int doc = 0; doc < ids.size(); doc++) {
+                if (!oldRetired.get(doc)) {
+                    add(ids.get(doc), charities.get(doc), oldTexts.get(doc));
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rough posting-list footprint, for monitoring
+     */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : trigrams.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Fold accents so a query without them still matches
+        if (!isAscii(value)) {
+            value = Normalizer.normalize(value, Normalizer.Form.NFD);
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean space = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') {
+            sb.setLength(end - 1);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String transactionId, String charityId, String text) {
+        int doc = transactionIds.size();
+        transactionIds.add(transactionId);
+        charityIds.add(charityId);
+        texts.add(text);
+        docByTransactionId.put(transactionId, doc);
+
+        for (String field : text.split(String.valueOf(FIELD_SEPARATOR), -1)) {
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                trigrams.computeIfAbsent(field.substring(i, i + 3), k -> new PostingList()).add(doc);
+            }
+        }
+    }
+
+    private void retire(int doc) {
+        if (!retired.get(doc)) {
+            retired.set(doc);
+            retiredCount++;
+        }
+    }
+
+    private static boolean matches(String text, String[] terms) {
+        int separator = text.indexOf(FIELD_SEPARATOR);
+        String donor = text.substring(0, separator);
+        String message = text.substring(separator + 1);
+        for (String term : terms) {
+            if (term.length() < MIN_TERM_LENGTH) {
+                // Short terms match as a word prefix
+                if (!hasTokenPrefix(donor, term) && !hasTokenPrefix(message, term)) {
+                    return false;
+                }
+            } else if (!donor.contains(term) && !message.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasTokenPrefix(String field, String prefix) {
+        return field.startsWith(prefix) || field.contains(" " + prefix);
+    }
+
+    private static boolean equalsNullable(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private interface DocIterator {
+        int next();
+    }
+
+    /**
+     * Leapfrog intersection, driven by the shortest list
+     */
+    private static DocIterator intersection(List<PostingList> lists) {
+        lists.sort(Comparator.comparingInt(PostingList::count));
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).cursor();
+        }
+        return () -> {
+            int doc = cursors[0].next();
+            outer:
+            while (doc != PostingList.NO_MORE_DOCS) {
+                for (int i = 1; i < cursors.length; i++) {
+                    int other = cursors[i].advance(doc);
+                    if (other > doc) {
+                        doc = cursors[0].advance(other);
+                        continue outer;
+                    }
+                }
+                return doc;
+            }
+            return PostingList.NO_MORE_DOCS;
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.demo.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * One pre-sized, memory-mapped, append-only log file.
+ *
+ * Record layout: {@code [int length][int crc32c][byte type][payload]}, where
+ * length covers type and payload and the checksum covers the same bytes. The
+ * unused tail of the file is zero, so a zero length marks the end of the log.
+ *
+ * Reads and writes use absolute buffer offsets only, so any number of readers
+ * can share the mapping with the single writer. Appends are only made under
+ * the store's write lock.
+ *
+ * The mapping is released explicitly rather than left to the garbage
+ * collector, so a compacted segment gives back its address space and disk
+ * blocks at once. Lock-free readers pin it with {@link #retain()} and
+ * {@link #release()}; it is unmapped when the segment has been closed or
+ * deleted and the last reader has let go.
+ */
+final class LogSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSegment.class);
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    static final int HEADER_SIZE = 8;
+    static final byte TYPE_PUT = 1;
+    static final byte TYPE_DELETE = 2;
+
+    interface RecordVisitor {
+        void visit(int offset, int size, byte type, byte[] payload);
+    }
+
+    final long id;
+    final Path path;
+    private final FileChannel channel;
+    private final int capacity;
+    // Cleared when unmapped, so a stray access fails fast instead of faulting
+    private MappedByteBuffer buffer;
+
+    // One reference for the store plus one per reader in flight
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // Only written under the store's write lock; volatile so that compaction
+    // can pick candidates by garbage ratio without taking it
+    private volatile int writePosition;
+    private volatile long liveBytes;
+
+    private LogSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    static LogSegment open(Path path, long id, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(channel.size(), capacity);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new LogSegment(id, path, channel, buffer, size);
+    }
+
+    /**
+     * Walk every intact record from the start of the file and return the
+     * offset just past the last one. Stops at the first empty slot or at a
+     * torn/corrupt record.
+     */
+    int scan(RecordVisitor visitor) {
+        int position = 0;
+        while (position + HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > capacity - position - HEADER_SIZE) {
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(position + HEADER_SIZE, record);
+            if (checksum(record) != buffer.getInt(position + 4)) {
+                break;
+            }
+            byte[] payload = new byte[length - 1];
+            System.arraycopy(record, 1, payload, 0, payload.length);
+            visitor.visit(position, HEADER_SIZE + length, record[0], payload);
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * Scan the segment on open and position the writer after the last intact
+     * record. A torn tail left by a crash is zeroed so that later appends start
+     * from a clean region.
+     */
+    void recover(RecordVisitor visitor) {
+        int position = scan(visitor);
+        writePosition = position;
+        if (position + 4 <= capacity && buffer.getInt(position) != 0) {
+            for (int i = position; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    boolean hasRoom(int payloadLength) {
+        return writePosition + HEADER_SIZE + 1 + payloadLength <= capacity;
+    }
+
+    static int recordSize(int payloadLength) {
+        return HEADER_SIZE + 1 + payloadLength;
+    }
+
+    /**
+     * Append a record and return its offset. The length is written last so a
+     * crash mid-append leaves either nothing or a record that fails its checksum.
+     */
+    int append(byte type, byte[] payload) {
+        int offset = writePosition;
+        int length = 1 + payload.length;
+        byte[] record = new byte[length];
+        record[0] = type;
+        System.arraycopy(payload, 0, record, 1, payload.length);
+
+        buffer.put(offset + HEADER_SIZE, record);
+        buffer.putInt(offset + 4, checksum(record));
+        buffer.putInt(offset, length);
+        writePosition = offset + HEADER_SIZE + length;
+        return offset;
+    }
+
+    byte[] readPayload(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] payload = new byte[length - 1];
+        buffer.get(offset + HEADER_SIZE + 1, payload);
+        return payload;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    void addLiveBytes(long delta) {
+        liveBytes += delta;
+    }
+
+    /**
+     * Share of the written bytes that no longer belong to a live record
+     */
+    double garbageRatio() {
+        return writePosition == 0 ? 0 : 1.0 - (double) liveBytes / writePosition;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Pin the mapping for a read made without the store's lock; false once the
+     * segment has been closed or deleted. Pair with {@link #release()}.
+     */
+    boolean retain() {
+        for (;;) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            unmap();
+        }
+    }
+
+    void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            channel.close();
+            release();
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    boolean isMapped() {
+        return buffer != null;
+    }
+
+    private void unmap() {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        if (mapped == null || UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) mapped);
+        } catch (Throwable e) {
+            logger.warn("Failed to unmap segment {}, leaving it to the garbage collector: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * {@code sun.misc.Unsafe.invokeCleaner}, or null on a JDK without it, in
+     * which case a mapping is released when its buffer is collected
+     */
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Segment files cannot be unmapped explicitly on this JDK: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record, 0, record.length);
+        return (int) crc.getValue();
+    }
+}
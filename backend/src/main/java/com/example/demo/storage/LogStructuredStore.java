@@ -0,0 +1,511 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Embedded log-structured transaction store.
+ *
+ * Every write appends a record to the active memory-mapped segment and moves
+ * the in-memory key index to point at it. Secondary indexes on charityId and
+ * createdAt hold (createdAt, id) keys in sorted sets, so charity and
+ * date-range scans never touch unrelated records. Writers are serialized by a
+ * single lock; readers are lock-free. A scan only accepts a key that matches
+ * the record's current index entry and returns each id once, so a record
+ * re-keyed while the scan runs is not reported twice.
+ *
+ * On open, segments are replayed in order to rebuild the indexes; a torn tail
+ * left by a crash fails its checksum and is discarded. Sealed segments whose
+ * live data has fallen below a threshold are compacted by copying their live
+ * records to the active segment and deleting the file.
+ */
+public class LogStructuredStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogStructuredStore.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnWrite;
+
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, RecordPointer> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<IndexKey>> byCharity = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<IndexKey> byCreatedAt = new ConcurrentSkipListSet<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile LogSegment active;
+
+    private LogStructuredStore(Path directory, int segmentSize, boolean syncOnWrite) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public static LogStructuredStore open(Path directory, int segmentSize, boolean syncOnWrite) throws IOException {
+        Files.createDirectories(directory);
+        LogStructuredStore store = new LogStructuredStore(directory, segmentSize, syncOnWrite);
+        store.recover();
+        return store;
+    }
+
+    public Transaction get(String id) {
+        for (;;) {
+            RecordPointer pointer = index.get(id);
+            if (pointer == null) {
+                return null;
+            }
+            LogSegment segment = segments.get(pointer.segmentId);
+            if (segment != null && segment.retain()) {
+                try {
+                    return TransactionRecordCodec.decode(segment.readPayload(pointer.offset));
+                } finally {
+                    segment.release();
+                }
+            }
+            // Segment was compacted away after we read the pointer; the index
+            // already points at the moved record, so look it up again
+        }
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    public long count() {
+        return index.size();
+    }
+
+    public void put(Transaction transaction) {
+        if (transaction.getId() == null) {
+            throw new IllegalArgumentException("Transaction ID is required");
+        }
+        byte[] payload = TransactionRecordCodec.encode(transaction);
+        writeLock.lock();
+        try {
+            RecordPointer pointer = appendPut(transaction.getId(), transaction.getCharityId(),
+                TransactionRecordCodec.createdAtKey(transaction.getCreatedAt()), payload);
+            index(transaction.getId(), pointer);
+            if (syncOnWrite) {
+                active.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Append a batch under one lock acquisition and at most one force
+     */
+    public void putAll(List<Transaction> transactions) {
+        byte[][] payloads = new byte[transactions.size()][];
+        for (int i = 0; i < payloads.length; i++) {
+            if (transactions.get(i).getId() == null) {
+                throw new IllegalArgumentException("Transaction ID is required");
+            }
+            payloads[i] = TransactionRecordCodec.encode(transactions.get(i));
+        }
+        writeLock.lock();
+        try {
+            for (int i = 0; i < payloads.length; i++) {
+                Transaction transaction = transactions.get(i);
+                RecordPointer pointer = appendPut(transaction.getId(), transaction.getCharityId(),
+                    TransactionRecordCodec.createdAtKey(transaction.getCreatedAt()), payloads[i]);
+                index(transaction.getId(), pointer);
+            }
+            if (syncOnWrite) {
+                active.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean delete(String id) {
+        writeLock.lock();
+        try {
+            RecordPointer previous = index.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            byte[] payload = TransactionRecordCodec.encodeTombstone(id);
+            ensureRoom(payload.length).append(LogSegment.TYPE_DELETE, payload);
+            release(id, previous);
+            if (syncOnWrite) {
+                active.force();
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<Transaction> findAll() {
+        List<Transaction> result = new ArrayList<>(index.size());
+        for (String id : index.keySet()) {
+            Transaction t = get(id);
+            if (t != null) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> findByCharity(String charityId) {
+        NavigableSet<IndexKey> keys = byCharity.get(charityId);
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        List<Transaction> result = new ArrayList<>(keys.size());
+        Set<String> seen = new HashSet<>();
+        for (IndexKey key : keys) {
+            if (!isCurrent(key, charityId) || !seen.add(key.id)) {
+                continue;
+            }
+            Transaction t = get(key.id);
+            // Skip entries that moved to another charity after we read the key
+            if (t != null && charityId.equals(t.getCharityId())) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end) {
+        long from = TransactionRecordCodec.createdAtKey(start);
+        long to = TransactionRecordCodec.createdAtKey(end);
+        List<Transaction> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (IndexKey key : byCreatedAt.subSet(new IndexKey(from, ""), true, new IndexKey(to + 1, ""), false)) {
+            if (!isCurrent(key, null) || !seen.add(key.id)) {
+                continue;
+            }
+            Transaction t = get(key.id);
+            // The index is at millisecond precision; apply the exact bounds here
+            if (t != null && t.getCreatedAt() != null
+                    && !t.getCreatedAt().isBefore(start) && !t.getCreatedAt().isAfter(end)) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} records in (createdAt, id) order, restricted to
+     * createdAt in [start, end) unless both bounds are null. Pass null for the
+     * first page, then {@link #cursorOf} of the previous page's last record.
+     */
+    public List<Transaction> scanByCreatedAt(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        IndexKey lower = start != null ? new IndexKey(TransactionRecordCodec.createdAtKey(start), "") : null;
+        boolean inclusive = true;
+        if (cursor != null) {
+            int sep = cursor.indexOf(':');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed scan cursor: " + cursor);
+            }
+            IndexKey after = new IndexKey(Long.parseLong(cursor.substring(0, sep)), cursor.substring(sep + 1));
+            if (lower == null || after.compareTo(lower) >= 0) {
+                lower = after;
+                inclusive = false;
+            }
+        }
+        long endKey = end != null ? TransactionRecordCodec.createdAtKey(end) : Long.MAX_VALUE;
+        NavigableSet<IndexKey> keys = lower != null ? byCreatedAt.tailSet(lower, inclusive) : byCreatedAt;
+
+        List<Transaction> result = new ArrayList<>(Math.min(limit, 1024));
+        Set<String> seen = new HashSet<>();
+        for (IndexKey key : keys) {
+            if (key.createdAtKey > endKey || result.size() >= limit) {
+                break;
+            }
+            if (!isCurrent(key, null) || !seen.add(key.id)) {
+                continue;
+            }
+            Transaction t = get(key.id);
+            // The index is at millisecond precision; apply the exact bounds here
+            if (t != null && (start == null || t.getCreatedAt() != null
+                    && !t.getCreatedAt().isBefore(start) && t.getCreatedAt().isBefore(end))) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scan position just after the given record
+     */
+    public static String cursorOf(Transaction transaction) {
+        return TransactionRecordCodec.createdAtKey(transaction.getCreatedAt()) + ":" + transaction.getId();
+    }
+
+    /**
+     * Flush the active segment to disk
+     */
+    public void sync() {
+        LogSegment segment = active;
+        // The segment may be sealed and compacted away while this runs
+        if (segment != null && segment.retain()) {
+            try {
+                segment.force();
+            } finally {
+                segment.release();
+            }
+        }
+    }
+
+    /**
+     * Compact sealed segments whose garbage ratio is at least the threshold.
+     * Each segment is handled under the write lock, so writers pause for at
+     * most one segment's worth of copying.
+     *
+     * @return number of segments removed
+     */
+    public int compact(double minGarbageRatio) throws IOException {
+        int compacted = 0;
+        for (LogSegment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || segment.garbageRatio() < minGarbageRatio) {
+                continue;
+            }
+            writeLock.lock();
+            try {
+                if (segment == active || !segments.containsKey(segment.id)) {
+                    continue;
+                }
+                compactSegment(segment);
+                compacted++;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return compacted;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    int indexedCharityCount() {
+        return byCharity.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (LogSegment segment : segments.values()) {
+                segment.force();
+                segment.close();
+            }
+            segments.clear();
+            active = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher m = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (m.matches()) {
+                    ids.add(Long.parseLong(m.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+
+        for (long id : ids) {
+            LogSegment segment = LogSegment.open(segmentPath(id), id, segmentSize);
+            segments.put(id, segment);
+            segment.recover((offset, size, type, payload) -> replay(segment, offset, size, type, payload));
+            active = segment;
+        }
+        if (active == null) {
+            active = newSegment(0);
+        }
+        logger.info("Opened transaction store at {}: segments={}, records={}", directory, segments.size(), index.size());
+    }
+
+    private void replay(LogSegment segment, int offset, int size, byte type, byte[] payload) {
+        if (type == LogSegment.TYPE_PUT) {
+            Transaction t = TransactionRecordCodec.decode(payload);
+            RecordPointer pointer = new RecordPointer(segment.id, offset, size, t.getCharityId(),
+                TransactionRecordCodec.createdAtKey(t.getCreatedAt()));
+            segment.addLiveBytes(size);
+            index(t.getId(), pointer);
+        } else if (type == LogSegment.TYPE_DELETE) {
+            String id = TransactionRecordCodec.decodeTombstone(payload);
+            RecordPointer previous = index.remove(id);
+            if (previous != null) {
+                release(id, previous);
+            }
+        }
+    }
+
+    private RecordPointer appendPut(String id, String charityId, long createdAtKey, byte[] payload) {
+        LogSegment segment = ensureRoom(payload.length);
+        int offset = segment.append(LogSegment.TYPE_PUT, payload);
+        int size = LogSegment.recordSize(payload.length);
+        segment.addLiveBytes(size);
+        return new RecordPointer(segment.id, offset, size, charityId, createdAtKey);
+    }
+
+    private void index(String id, RecordPointer pointer) {
+        // Secondary keys first: a scan that finds the new key before the
+        // pointer moves skips it as stale, and the old key is skipped once the
+        // pointer has moved, so readers see the record under one key at a time
+        IndexKey key = new IndexKey(pointer.createdAtKey, id);
+        if (pointer.charityId != null) {
+            byCharity.computeIfAbsent(pointer.charityId, k -> new ConcurrentSkipListSet<>()).add(key);
+        }
+        byCreatedAt.add(key);
+        RecordPointer previous = index.put(id, pointer);
+        if (previous != null) {
+            release(id, previous);
+        }
+    }
+
+    /**
+     * Whether a secondary key still describes the record's current version
+     */
+    private boolean isCurrent(IndexKey key, String charityId) {
+        RecordPointer pointer = index.get(key.id);
+        return pointer != null && pointer.createdAtKey == key.createdAtKey
+            && (charityId == null || charityId.equals(pointer.charityId));
+    }
+
+    private void release(String id, RecordPointer previous) {
+        LogSegment segment = segments.get(previous.segmentId);
+        if (segment != null) {
+            segment.addLiveBytes(-previous.size);
+        }
+        IndexKey key = new IndexKey(previous.createdAtKey, id);
+        RecordPointer current = index.get(id);
+        boolean sameKey = current != null && current.createdAtKey == previous.createdAtKey;
+        if (previous.charityId != null && !(sameKey && previous.charityId.equals(current.charityId))) {
+            NavigableSet<IndexKey> keys = byCharity.get(previous.charityId);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                // Writers hold the lock, so nothing can re-add to this set meanwhile
+                byCharity.remove(previous.charityId, keys);
+            }
+        }
+        if (!sameKey) {
+            byCreatedAt.remove(key);
+        }
+    }
+
+    private LogSegment ensureRoom(int payloadLength) {
+        if (LogSegment.recordSize(payloadLength) > segmentSize) {
+            throw new IllegalArgumentException("Record of " + payloadLength + " bytes exceeds segment size");
+        }
+        if (!active.hasRoom(payloadLength)) {
+            active.force();
+            try {
+                active = newSegment(active.id + 1);
+            } catch (IOException e) {
+                throw new StorageException("Failed to roll log segment", e);
+            }
+        }
+        return active;
+    }
+
+    private LogSegment newSegment(long id) throws IOException {
+        LogSegment segment = LogSegment.open(segmentPath(id), id, segmentSize);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void compactSegment(LogSegment segment) throws IOException {
+        boolean oldest = segments.firstKey() == segment.id;
+        int[] moved = new int[1];
+        segment.scan((offset, size, type, payload) -> {
+            if (type == LogSegment.TYPE_PUT) {
+                String id = TransactionRecordCodec.readId(payload);
+                RecordPointer pointer = index.get(id);
+                if (pointer != null && pointer.segmentId == segment.id && pointer.offset == offset) {
+                    LogSegment target = ensureRoom(payload.length);
+                    int newOffset = target.append(LogSegment.TYPE_PUT, payload);
+                    target.addLiveBytes(size);
+                    index.put(id, new RecordPointer(target.id, newOffset, size, pointer.charityId, pointer.createdAtKey));
+                    moved[0]++;
+                }
+            } else if (type == LogSegment.TYPE_DELETE && !oldest) {
+                // An older segment may still hold a put for this key
+                String id = TransactionRecordCodec.decodeTombstone(payload);
+                if (!index.containsKey(id)) {
+                    ensureRoom(payload.length).append(LogSegment.TYPE_DELETE, payload);
+                }
+            }
+        });
+        active.force();
+        segments.remove(segment.id);
+        segment.delete();
+        logger.debug("Compacted segment {}: moved {} live records", segment.id, moved[0]);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("segment-%010d.log", id));
+    }
+
+    static final class RecordPointer {
+        final long segmentId;
+        final int offset;
+        final int size;
+        final String charityId;
+        final long createdAtKey;
+
+        RecordPointer(long segmentId, int offset, int size, String charityId, long createdAtKey) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.size = size;
+            this.charityId = charityId;
+            this.createdAtKey = createdAtKey;
+        }
+    }
+
+    static final class IndexKey implements Comparable<IndexKey> {
+        final long createdAtKey;
+        final String id;
+
+        IndexKey(long createdAtKey, String id) {
+            this.createdAtKey = createdAtKey;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            int c = Long.compare(createdAtKey, other.createdAtKey);
+            return c != 0 ? c : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IndexKey && compareTo((IndexKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(createdAtKey) * 31 + id.hashCode();
+        }
+    }
+}
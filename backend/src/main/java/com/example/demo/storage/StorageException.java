@@ -0,0 +1,8 @@
+package com.example.demo.storage;
+
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of a transaction inside a log record. The id is always the
+ * first field so it can be read without decoding the rest.
+ */
+final class TransactionRecordCodec {
+
+    private static final byte VERSION = 1;
+
+    private TransactionRecordCodec() {
+    }
+
+    static byte[] encode(Transaction t) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, t.getId());
+            writeString(out, t.getCharityId());
+            writeString(out, t.getDonorName());
+            writeDecimal(out, t.getAmount());
+            writeString(out, t.getPaymentMethod());
+            writeString(out, t.getStatus());
+            writeString(out, t.getMessage());
+            writeString(out, t.getDescription());
+            writeString(out, t.getTransactionHash());
+            writeDateTime(out, t.getCreatedAt());
+            writeDateTime(out, t.getUpdatedAt());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Transaction decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            checkVersion(in.readByte());
+            Transaction t = new Transaction();
+            t.setId(readString(in));
+            t.setCharityId(readString(in));
+            t.setDonorName(readString(in));
+            t.setAmount(readDecimal(in));
+            t.setPaymentMethod(readString(in));
+            t.setStatus(readString(in));
+            t.setMessage(readString(in));
+            t.setDescription(readString(in));
+            t.setTransactionHash(readString(in));
+            t.setCreatedAt(readDateTime(in));
+            t.setUpdatedAt(readDateTime(in));
+            return t;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String readId(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            checkVersion(in.readByte());
+            return readString(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encodeTombstone(String id) {
+        return id.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String decodeTombstone(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Millisecond key used by the createdAt index; null sorts first
+     */
+    static long createdAtKey(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private static void checkVersion(byte version) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("Unsupported record version " + version);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
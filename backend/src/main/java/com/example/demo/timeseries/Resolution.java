@@ -0,0 +1,70 @@
+package com.example.demo.timeseries;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Rollup tiers from finest to coarsest. createdAt holds local wall-clock
+ * time; it is put on a UTC time line as is, so buckets follow the local
+ * calendar, and retention is measured against the wall clock on that same
+ * line (see {@link #nowMillis}).
+ */
+public enum Resolution {
+    MINUTE(60_000L),
+    HOUR(3_600_000L),
+    DAY(86_400_000L),
+    MONTH(30L * 86_400_000L);
+
+    private final long nominalMillis;
+
+    Resolution(long nominalMillis) {
+        this.nominalMillis = nominalMillis;
+    }
+
+    /**
+     * Bucket length; approximate for {@link #MONTH}
+     */
+    long nominalMillis() {
+        return nominalMillis;
+    }
+
+    /**
+     * Start of the bucket containing {@code epochMillis}
+     */
+    long floor(long epochMillis) {
+        if (this != MONTH) {
+            return Math.floorDiv(epochMillis, nominalMillis) * nominalMillis;
+        }
+        return toEpochMillis(toDateTime(epochMillis).toLocalDate().withDayOfMonth(1).atStartOfDay());
+    }
+
+    /**
+     * Start of the bucket after the one starting at {@code bucketStart}
+     */
+    long next(long bucketStart) {
+        if (this != MONTH) {
+            return bucketStart + nominalMillis;
+        }
+        return toEpochMillis(toDateTime(bucketStart).plusMonths(1));
+    }
+
+    Resolution finer() {
+        return ordinal() > 0 ? values()[ordinal() - 1] : null;
+    }
+
+    /**
+     * The current local time on the same time line as {@link #toEpochMillis}
+     */
+    static long nowMillis() {
+        return toEpochMillis(LocalDateTime.now());
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+            (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
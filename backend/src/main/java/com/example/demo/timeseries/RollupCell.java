@@ -0,0 +1,40 @@
+package com.example.demo.timeseries;
+
+/**
+ * Count, sum, min and max of the amounts in one bucket, in minor units.
+ * Removing the current minimum or maximum leaves the extremes stale until
+ * background compaction recomputes them. Guarded by the rollups' lock.
+ */
+final class RollupCell {
+
+    long count;
+    long sum;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    boolean extremaStale;
+    long version;
+
+    void add(long amount) {
+        count++;
+        sum += amount;
+        min = Math.min(min, amount);
+        max = Math.max(max, amount);
+        version++;
+    }
+
+    void remove(long amount) {
+        count--;
+        sum -= amount;
+        if (amount <= min || amount >= max) {
+            extremaStale = true;
+        }
+        version++;
+    }
+
+    void merge(RollupCell other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+}
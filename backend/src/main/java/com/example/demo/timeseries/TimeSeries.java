@@ -0,0 +1,21 @@
+package com.example.demo.timeseries;
+
+import java.util.List;
+
+/**
+ * Rollup points for a range at the resolution that was chosen for it. Buckets
+ * without donations are omitted.
+ */
+public class TimeSeries {
+
+    private final Resolution resolution;
+    private final List<TimeSeriesPoint> points;
+
+    public TimeSeries(Resolution resolution, List<TimeSeriesPoint> points) {
+        this.resolution = resolution;
+        this.points = points;
+    }
+
+    public Resolution getResolution() { return resolution; }
+    public List<TimeSeriesPoint> getPoints() { return points; }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.timeseries;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.StoreLoadListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the rollups from the shared startup pass over the store and
+ * periodically compacts them.
+ */
+@Component
+public class TimeSeriesLoader implements StoreLoadListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesLoader.class);
+
+    @Autowired
+    private TimeSeriesRollups rollups;
+
+    @Scheduled(fixedDelayString = "${timeseries.compaction.interval-ms:60000}")
+    public void compact() {
+        if (!rollups.isReady()) {
+            return;
+        }
+        try {
+            rollups.compact();
+        } catch (Exception e) {
+            logger.error("Time-series compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String loadName() {
+        return "time-series rollups";
+    }
+
+    @Override
+    public void loaded(Transaction transaction) {
+        rollups.addLoaded(transaction);
+    }
+
+    @Override
+    public void loadFinished() {
+        rollups.markReady();
+    }
+}
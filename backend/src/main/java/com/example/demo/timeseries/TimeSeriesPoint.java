@@ -0,0 +1,27 @@
+package com.example.demo.timeseries;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TimeSeriesPoint {
+
+    private final LocalDateTime bucketStart;
+    private final long count;
+    private final BigDecimal sum;
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    public TimeSeriesPoint(LocalDateTime bucketStart, long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        this.bucketStart = bucketStart;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getCount() { return count; }
+    public BigDecimal getSum() { return sum; }
+    public BigDecimal getMin() { return min; }
+    public BigDecimal getMax() { return max; }
+}
@@ -0,0 +1,510 @@
+package com.example.demo.timeseries;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.TransactionPage;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.resilience.DependencyGuard;
+import com.example.demo.resilience.DependencyGuardRegistry;
+import com.example.demo.resilience.DependencyUnavailableException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Donation rollups (count, sum, min, max) per charity and payment method at
+ * minute, hour, day and month resolution, so charts never read raw rows.
+ *
+ * Each write updates the bucket in every tier that still retains its
+ * timestamp. Finer tiers are only kept for a limited time; once their buckets
+ * are covered by the coarser tiers, background compaction drops them. It
+ * also recomputes min and max for buckets where an update or delete removed
+ * the extreme value.
+ *
+ * The amount, series and time each transaction was counted with are kept
+ * per ID, so a write that repeats an ID (a re-posted or re-imported row)
+ * replaces the earlier contribution instead of adding to it. Startup follows
+ * the same pattern as the search index: the loader counts every stored row,
+ * and live writes claim their transaction IDs before touching the store so
+ * that the loader never counts a version older than the one applied live.
+ * That per-ID record is kept small: series keys are interned, so it holds a
+ * shared key, the time and the amount.
+ */
+@Component
+public class TimeSeriesRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesRollups.class);
+
+    static final int AMOUNT_SCALE = 2;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DependencyGuardRegistry dependencyGuards;
+
+    @Value("${timeseries.retention.minute:2d}")
+    private Duration minuteRetention;
+
+    @Value("${timeseries.retention.hour:90d}")
+    private Duration hourRetention;
+
+    @Value("${timeseries.retention.day:1825d}")
+    private Duration dayRetention;
+
+    @Value("${timeseries.max-points:1000}")
+    private int maxPoints;
+
+    @Value("${timeseries.compaction.page-size:1000}")
+    private int repairPageSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Resolution, Map<SeriesKey, NavigableMap<Long, RollupCell>>> tiers = new EnumMap<>(Resolution.class);
+    private final Map<Resolution, Long> retentionMillis = new EnumMap<>(Resolution.class);
+    private final Map<SeriesKey, SeriesKey> seriesKeys = new ConcurrentHashMap<>();
+    // Guarded by lock's write lock
+    private final Map<String, Contribution> counted = new HashMap<>();
+    private final Set<String> claimedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private DependencyGuard storeGuard;
+
+    @PostConstruct
+    public void init() {
+        storeGuard = dependencyGuards.guard("timeseries");
+        for (Resolution resolution : Resolution.values()) {
+            tiers.put(resolution, new HashMap<>());
+        }
+        retentionMillis.put(Resolution.MINUTE, minuteRetention.toMillis());
+        retentionMillis.put(Resolution.HOUR, hourRetention.toMillis());
+        retentionMillis.put(Resolution.DAY, dayRetention.toMillis());
+        retentionMillis.put(Resolution.MONTH, 0L);
+    }
+
+    /**
+     * Call before writing the transaction to the store; until the rollups are
+     * loaded, the loader then leaves the ID to the live write
+     */
+    public void claim(String transactionId) {
+        if (!ready) {
+            claimedDuringLoad.add(transactionId);
+        }
+    }
+
+    /**
+     * Bring the rollups in line with the current state of a transaction
+     */
+    public void apply(Transaction transaction) {
+        Contribution next = contributionOf(transaction);
+        lock.writeLock().lock();
+        try {
+            Contribution previous = next != null
+                ? counted.put(transaction.getId(), next)
+                : counted.remove(transaction.getId());
+            if (Objects.equals(previous, next)) {
+                return;
+            }
+            long now = Resolution.nowMillis();
+            if (previous != null) {
+                post(previous, false, now);
+            }
+            if (next != null) {
+                post(next, true, now);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String transactionId) {
+        lock.writeLock().lock();
+        try {
+            Contribution previous = counted.remove(transactionId);
+            if (previous != null) {
+                post(previous, false, Resolution.nowMillis());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count a transaction read by the startup loader unless a live write claimed it
+     */
+    void addLoaded(Transaction transaction) {
+        if (claimedDuringLoad.add(transaction.getId())) {
+            apply(transaction);
+        }
+    }
+
+    void markReady() {
+        ready = true;
+        claimedDuringLoad.clear();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    /**
+     * Number of buckets held at one resolution, across all series
+     */
+    int bucketCount(Resolution resolution) {
+        lock.readLock().lock();
+        try {
+            return tiers.get(resolution).values().stream().mapToInt(Map::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rollups for {@code [from, to]}, summed over the matching series, at the
+     * finest resolution that still retains {@code from} and needs at most
+     * {@code points} buckets for the range
+     *
+     * @param charityId charity to include, or null for all
+     * @param paymentMethod payment method to include, or null for all
+     */
+    public TimeSeries query(String charityId, String paymentMethod, LocalDateTime from, LocalDateTime to, int points) {
+        long fromMillis = Resolution.toEpochMillis(from);
+        long toMillis = Resolution.toEpochMillis(to);
+        Resolution resolution = choose(fromMillis, toMillis, points, Resolution.nowMillis());
+
+        TreeMap<Long, RollupCell> merged = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<SeriesKey, NavigableMap<Long, RollupCell>> series : tiers.get(resolution).entrySet()) {
+                if (!series.getKey().matches(charityId, paymentMethod)) {
+                    continue;
+                }
+                for (Map.Entry<Long, RollupCell> bucket
+                        : series.getValue().subMap(resolution.floor(fromMillis), true, toMillis, true).entrySet()) {
+                    merged.computeIfAbsent(bucket.getKey(), k -> new RollupCell()).merge(bucket.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<TimeSeriesPoint> result = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, RollupCell> bucket : merged.entrySet()) {
+            RollupCell cell = bucket.getValue();
+            result.add(new TimeSeriesPoint(Resolution.toDateTime(bucket.getKey()), cell.count,
+                toAmount(cell.sum), toAmount(cell.min), toAmount(cell.max)));
+        }
+        return new TimeSeries(resolution, result);
+    }
+
+    Resolution choose(long fromMillis, long toMillis, int points, long nowMillis) {
+        for (Resolution resolution : Resolution.values()) {
+            if (!retained(resolution, fromMillis, nowMillis)) {
+                continue;
+            }
+            if ((toMillis - fromMillis) / resolution.nominalMillis() + 1 <= points) {
+                return resolution;
+            }
+        }
+        return Resolution.MONTH;
+    }
+
+    /**
+     * Drop buckets past their tier's retention and repair stale extremes
+     */
+    void compact() {
+        long now = Resolution.nowMillis();
+        int dropped = 0;
+        lock.writeLock().lock();
+        try {
+            for (Resolution resolution : Resolution.values()) {
+                long retention = retentionMillis.get(resolution);
+                if (retention <= 0) {
+                    continue;
+                }
+                long cutoff = resolution.floor(now - retention);
+                Iterator<NavigableMap<Long, RollupCell>> series = tiers.get(resolution).values().iterator();
+                while (series.hasNext()) {
+                    NavigableMap<Long, RollupCell> cells = series.next();
+                    NavigableMap<Long, RollupCell> expired = cells.headMap(cutoff, false);
+                    dropped += expired.size();
+                    expired.clear();
+                    if (cells.isEmpty()) {
+                        series.remove();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Finest first, so coarser tiers can be repaired from already repaired children
+        int repaired = 0;
+        try {
+            for (Resolution resolution : Resolution.values()) {
+                Resolution finer = resolution.finer();
+                Map<Long, List<StaleBucket>> fromStore = new TreeMap<>();
+                for (StaleBucket stale : staleBuckets(resolution)) {
+                    if (finer != null && retained(finer, stale.bucketStart, now)) {
+                        if (repair(resolution, stale, fromFinerTier(finer, stale, resolution.next(stale.bucketStart)))) {
+                            repaired++;
+                        }
+                    } else {
+                        fromStore.computeIfAbsent(stale.bucketStart, k -> new ArrayList<>()).add(stale);
+                    }
+                }
+                for (Map.Entry<Long, List<StaleBucket>> bucket : fromStore.entrySet()) {
+                    repaired += repairFromStore(resolution, bucket.getKey(), bucket.getValue());
+                }
+            }
+        } catch (DependencyUnavailableException e) {
+            // Still marked stale; the next pass tries again
+            logger.debug("Stopped repairing time-series extremes: {}", e.getMessage());
+        }
+        if (dropped > 0 || repaired > 0) {
+            logger.debug("Compacted time-series rollups: droppedBuckets={}, repairedBuckets={}", dropped, repaired);
+        }
+    }
+
+    private List<StaleBucket> staleBuckets(Resolution resolution) {
+        List<StaleBucket> stale = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<SeriesKey, NavigableMap<Long, RollupCell>> series : tiers.get(resolution).entrySet()) {
+                for (Map.Entry<Long, RollupCell> bucket : series.getValue().entrySet()) {
+                    if (bucket.getValue().extremaStale) {
+                        stale.add(new StaleBucket(series.getKey(), bucket.getKey(), bucket.getValue().version));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stale;
+    }
+
+    /**
+     * Min and max of the finer tier's buckets inside a stale bucket
+     */
+    private RollupCell fromFinerTier(Resolution finer, StaleBucket stale, long end) {
+        RollupCell extremes = new RollupCell();
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, RollupCell> cells = tiers.get(finer).get(stale.series);
+            if (cells != null) {
+                for (RollupCell child : cells.subMap(stale.bucketStart, true, end, false).values()) {
+                    extremes.merge(child);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return extremes;
+    }
+
+    /**
+     * Recompute min and max of every stale series in one bucket with a single
+     * paged scan of the bucket's rows
+     *
+     * @return the number of buckets repaired
+     */
+    private int repairFromStore(Resolution resolution, long bucketStart, List<StaleBucket> stale) {
+        Map<SeriesKey, RollupCell> extremes = new HashMap<>();
+        for (StaleBucket bucket : stale) {
+            extremes.put(bucket.series, new RollupCell());
+        }
+        LocalDateTime from = Resolution.toDateTime(bucketStart);
+        LocalDateTime to = Resolution.toDateTime(resolution.next(bucketStart));
+        String cursor = null;
+        do {
+            String pageCursor = cursor;
+            TransactionPage page = storeGuard.call(() -> transactionRepository.scan(from, to, pageCursor, repairPageSize));
+            for (Transaction t : page.getTransactions()) {
+                RollupCell cell = extremes.get(new SeriesKey(t.getCharityId(), t.getPaymentMethod()));
+                if (cell != null && fitsInMinorUnits(t.getAmount())) {
+                    cell.add(toMinor(t.getAmount()));
+                }
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        int repaired = 0;
+        for (StaleBucket bucket : stale) {
+            if (repair(resolution, bucket, extremes.get(bucket.series))) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Store recomputed extremes unless the bucket changed since it was found
+     * stale; the next pass picks it up again
+     */
+    private boolean repair(Resolution resolution, StaleBucket stale, RollupCell extremes) {
+        lock.writeLock().lock();
+        try {
+            NavigableMap<Long, RollupCell> cells = tiers.get(resolution).get(stale.series);
+            RollupCell cell = cells != null ? cells.get(stale.bucketStart) : null;
+            if (cell == null || cell.version != stale.version) {
+                return false;
+            }
+            cell.min = extremes.min;
+            cell.max = extremes.max;
+            cell.extremaStale = false;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Contribution contributionOf(Transaction transaction) {
+        if (!fitsInMinorUnits(transaction.getAmount()) || transaction.getCreatedAt() == null) {
+            return null;
+        }
+        SeriesKey series = new SeriesKey(transaction.getCharityId(), transaction.getPaymentMethod());
+        return new Contribution(seriesKeys.computeIfAbsent(series, k -> k),
+            Resolution.toEpochMillis(transaction.getCreatedAt()), toMinor(transaction.getAmount()));
+    }
+
+    /**
+     * Add or take back one contribution in every tier that retains it; caller
+     * holds the write lock
+     */
+    private void post(Contribution contribution, boolean add, long now) {
+        for (Resolution resolution : Resolution.values()) {
+            if (!retained(resolution, contribution.epochMillis, now)) {
+                continue;
+            }
+            long bucket = resolution.floor(contribution.epochMillis);
+            Map<SeriesKey, NavigableMap<Long, RollupCell>> tier = tiers.get(resolution);
+            if (add) {
+                tier.computeIfAbsent(contribution.series, k -> new TreeMap<>())
+                    .computeIfAbsent(bucket, k -> new RollupCell())
+                    .add(contribution.amountMinor);
+                continue;
+            }
+            NavigableMap<Long, RollupCell> cells = tier.get(contribution.series);
+            RollupCell cell = cells != null ? cells.get(bucket) : null;
+            if (cell != null) {
+                cell.remove(contribution.amountMinor);
+                if (cell.count <= 0) {
+                    cells.remove(bucket);
+                    if (cells.isEmpty()) {
+                        tier.remove(contribution.series);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean retained(Resolution resolution, long epochMillis, long nowMillis) {
+        long retention = retentionMillis.get(resolution);
+        return retention <= 0 || epochMillis >= resolution.floor(nowMillis - retention);
+    }
+
+    /**
+     * New writes are capped by TransactionService.validateTransaction; an older
+     * row too large for a long of minor units is left out of the rollups
+     */
+    private static boolean fitsInMinorUnits(BigDecimal amount) {
+        return amount != null
+            && amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().bitLength() < Long.SIZE - 1;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, AMOUNT_SCALE);
+    }
+
+    private static final class SeriesKey {
+        final String charityId;
+        final String paymentMethod;
+
+        SeriesKey(String charityId, String paymentMethod) {
+            this.charityId = charityId;
+            this.paymentMethod = paymentMethod;
+        }
+
+        boolean matches(String charityId, String paymentMethod) {
+            return (charityId == null || charityId.equals(this.charityId))
+                && (paymentMethod == null || paymentMethod.equalsIgnoreCase(this.paymentMethod));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SeriesKey)) return false;
+            SeriesKey other = (SeriesKey) o;
+            return Objects.equals(charityId, other.charityId) && Objects.equals(paymentMethod, other.paymentMethod);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(charityId, paymentMethod);
+        }
+    }
+
+    /**
+     * What one transaction currently adds to the rollups; one per counted ID,
+     * sharing the interned series key
+     */
+    private static final class Contribution {
+        final SeriesKey series;
+        final long epochMillis;
+        final long amountMinor;
+
+        Contribution(SeriesKey series, long epochMillis, long amountMinor) {
+            this.series = series;
+            this.epochMillis = epochMillis;
+            this.amountMinor = amountMinor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Contribution)) return false;
+            Contribution other = (Contribution) o;
+            return series == other.series && epochMillis == other.epochMillis && amountMinor == other.amountMinor;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(series, epochMillis, amountMinor);
+        }
+    }
+
+    private static final class StaleBucket {
+        final SeriesKey series;
+        final long bucketStart;
+        final long version;
+
+        StaleBucket(SeriesKey series, long bucketStart, long version) {
+            this.series = series;
+            this.bucketStart = bucketStart;
+            this.version = version;
+        }
+    }
+}
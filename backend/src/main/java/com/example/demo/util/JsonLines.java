@@ -0,0 +1,38 @@
+package com.example.demo.util;
+
+/**
+ * Helpers for the hand-written JSON-lines files (audit log, reconciliation
+ * reports), which are appended on hot paths without an ObjectMapper.
+ */
+public final class JsonLines {
+
+    private JsonLines() {
+    }
+
+    /**
+     * Append {@code ,"name":"value"} with the value escaped; nothing if the value is null
+     */
+    public static void appendField(StringBuilder sb, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        sb.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
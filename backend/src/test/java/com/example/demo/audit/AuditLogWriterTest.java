@@ -0,0 +1,166 @@
+package com.example.demo.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogWriterTest {
+
+	private static final long MAX_FILE_BYTES = 2500;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void writesJsonLinesAndRotatesBySizeSkippingFullFiles() throws Exception {
+		// A file left full by a previous run is not appended to
+		String today = DateTimeFormatter.BASIC_ISO_DATE.format(LocalDate.now(ZoneOffset.UTC));
+		Path full = directory.resolve("audit-" + today + "-0.log");
+		Files.writeString(full, "x".repeat((int) MAX_FILE_BYTES - 10) + "\n");
+
+		AuditRingBuffer buffer = new AuditRingBuffer(1024);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(buffer.offer(event("e" + i)));
+		}
+		AuditLogWriter writer = new AuditLogWriter(buffer, directory, 10, MAX_FILE_BYTES, 1, false);
+		Thread thread = start(writer);
+		await(() -> writer.writtenCount() == 100);
+		writer.shutdown();
+		thread.join();
+
+		assertEquals(MAX_FILE_BYTES - 9, Files.size(full));
+		List<Path> files = auditFiles();
+		assertTrue(files.size() > 2, files.toString());
+		for (Path file : files.subList(1, files.size())) {
+			assertTrue(Files.size(file) <= MAX_FILE_BYTES, file + " has " + Files.size(file) + " bytes");
+		}
+		assertEquals(ids(100), transactionIds(files.subList(1, files.size())));
+		assertFalse(writer.isFailing());
+	}
+
+	@Test
+	void failedWritesBackOffAndTheBatchIsWrittenOnRecovery() throws Exception {
+		// A regular file where the directory should be makes every write fail
+		Path blocked = directory.resolve("audit");
+		Files.writeString(blocked, "not a directory");
+
+		AuditRingBuffer buffer = new AuditRingBuffer(64);
+		for (int i = 0; i < 30; i++) {
+			assertTrue(buffer.offer(event("e" + i)));
+		}
+		AuditLogWriter writer = new AuditLogWriter(buffer, blocked, 10, MAX_FILE_BYTES, 1, false);
+		Thread thread = start(writer);
+		try {
+			await(writer::isFailing);
+			Thread.sleep(300);
+
+			// 1 ms apart without backoff; doubling delays allow only a handful of attempts
+			int failures = writer.failureCount();
+			assertTrue(failures >= 2 && failures <= 15, "failures=" + failures);
+			assertNotNull(writer.lastError());
+			assertEquals(0, writer.writtenCount());
+			assertTrue(thread.isAlive());
+
+			Files.delete(blocked);
+			await(() -> writer.writtenCount() == 30);
+			assertFalse(writer.isFailing());
+			assertNull(writer.lastError());
+		} finally {
+			writer.shutdown();
+			thread.join();
+		}
+
+		List<Path> files;
+		try (Stream<Path> list = Files.list(blocked)) {
+			files = list.sorted().collect(Collectors.toList());
+		}
+		assertEquals(ids(30), transactionIds(files));
+	}
+
+	@Test
+	void eventsPublishedBeforeShutdownAreFlushed() throws Exception {
+		AuditRingBuffer buffer = new AuditRingBuffer(1024);
+		AuditLogWriter writer = new AuditLogWriter(buffer, directory, 7, 1 << 20, 60_000, false);
+		Thread thread = start(writer);
+		for (int i = 0; i < 50; i++) {
+			assertTrue(buffer.offer(event("e" + i)));
+		}
+		writer.shutdown();
+		thread.join();
+
+		assertEquals(50, writer.writtenCount());
+		assertEquals(ids(50), transactionIds(auditFiles()));
+	}
+
+	private static Thread start(AuditLogWriter writer) {
+		Thread thread = new Thread(writer, "audit-writer-test");
+		thread.start();
+		return thread;
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * Audit files in write order: by date, then by numeric index
+	 */
+	private List<Path> auditFiles() throws IOException {
+		try (Stream<Path> list = Files.list(directory)) {
+			return list
+				.filter(p -> p.getFileName().toString().startsWith("audit-"))
+				.sorted(Comparator.comparingInt(p -> {
+					String name = p.getFileName().toString();
+					return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.length() - ".log".length()));
+				}))
+				.collect(Collectors.toList());
+		}
+	}
+
+	private static List<String> transactionIds(List<Path> files) throws IOException {
+		List<String> ids = new ArrayList<>();
+		for (Path file : files) {
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				assertTrue(line.startsWith("{\"ts\":") && line.endsWith("}"), line);
+				int start = line.indexOf("\"transactionId\":\"") + "\"transactionId\":\"".length();
+				ids.add(line.substring(start, line.indexOf('"', start)));
+			}
+		}
+		return ids;
+	}
+
+	private static List<String> ids(int n) {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			ids.add("e" + i);
+		}
+		return ids;
+	}
+
+	private static AuditEvent event(String id) {
+		return new AuditEvent(0, AuditAction.CREATE, id, "charity-1", "1.00", "PENDING", "test");
+	}
+}
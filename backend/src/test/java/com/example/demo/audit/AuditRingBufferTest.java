@@ -0,0 +1,124 @@
+package com.example.demo.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditRingBufferTest {
+
+	@Test
+	void capacityRoundsUpToAPowerOfTwo() {
+		assertEquals(8, new AuditRingBuffer(8).capacity());
+		assertEquals(16, new AuditRingBuffer(9).capacity());
+		assertEquals(1024, new AuditRingBuffer(1000).capacity());
+	}
+
+	@Test
+	void eventsComeOutInOrderAcrossManyWraparounds() {
+		AuditRingBuffer buffer = new AuditRingBuffer(8);
+		List<AuditEvent> sink = new ArrayList<>();
+		int next = 0;
+		for (int round = 0; round < 100; round++) {
+			for (int i = 0; i < 5; i++) {
+				assertTrue(buffer.offer(event("e" + next++)));
+			}
+			assertEquals(3, buffer.drainTo(sink, 3));
+			assertEquals(2, buffer.drainTo(sink, 10));
+			assertEquals(0, buffer.drainTo(sink, 10));
+		}
+
+		assertEquals(500, sink.size());
+		for (int i = 0; i < sink.size(); i++) {
+			assertEquals("e" + i, sink.get(i).getTransactionId());
+		}
+		assertEquals(0, buffer.droppedCount());
+	}
+
+	@Test
+	void fullBufferDropsAndCountsInsteadOfBlocking() {
+		AuditRingBuffer buffer = new AuditRingBuffer(8);
+		for (int i = 0; i < 8; i++) {
+			assertTrue(buffer.offer(event("e" + i)));
+		}
+		assertFalse(buffer.offer(event("lost-1")));
+		assertEquals(1, buffer.droppedCount());
+
+		List<AuditEvent> sink = new ArrayList<>();
+		buffer.drainTo(sink, 3);
+		for (int i = 8; i < 11; i++) {
+			assertTrue(buffer.offer(event("e" + i)));
+		}
+		assertFalse(buffer.offer(event("lost-2")));
+		assertEquals(2, buffer.droppedCount());
+
+		buffer.drainTo(sink, 100);
+		assertEquals(11, sink.size());
+		for (int i = 0; i < sink.size(); i++) {
+			assertEquals("e" + i, sink.get(i).getTransactionId());
+		}
+	}
+
+	@Test
+	void concurrentProducersLoseNothingButCountedDrops() throws Exception {
+		AuditRingBuffer buffer = new AuditRingBuffer(256);
+		int producers = 4;
+		int perProducer = 50_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			String prefix = p + ":";
+			Thread producer = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < perProducer; i++) {
+					buffer.offer(event(prefix + i));
+				}
+			});
+			producer.start();
+			threads.add(producer);
+		}
+
+		AtomicBoolean producing = new AtomicBoolean(true);
+		List<AuditEvent> sink = new ArrayList<>();
+		Thread consumer = new Thread(() -> {
+			while (producing.get() || buffer.drainTo(sink, 64) > 0) {
+				buffer.drainTo(sink, 64);
+			}
+		});
+		consumer.start();
+		start.countDown();
+		for (Thread producer : threads) {
+			producer.join();
+		}
+		producing.set(false);
+		consumer.join();
+
+		assertEquals((long) producers * perProducer, sink.size() + buffer.droppedCount());
+		// Each producer's events that got through keep their relative order
+		int[] last = new int[producers];
+		Arrays.fill(last, -1);
+		for (AuditEvent event : sink) {
+			String[] parts = event.getTransactionId().split(":");
+			int producer = Integer.parseInt(parts[0]);
+			int sequence = Integer.parseInt(parts[1]);
+			assertTrue(sequence > last[producer], event.getTransactionId());
+			last[producer] = sequence;
+		}
+	}
+
+	private static AuditEvent event(String id) {
+		return new AuditEvent(0, AuditAction.CREATE, id, "charity-1", "1.00", "PENDING", "test");
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.demo.bulkimport;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkImporterTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void splitCutsJustAfterTheNextNewline() throws IOException {
+		Path file = write("aaaa\nbb\ncccccc\nd\n");
+
+		assertEquals(List.of("0-5", "5-15", "15-17"), ranges(split(file, 0, 3)));
+		assertEquals(List.of("5-17"), ranges(split(file, 5, 100)));
+		assertTrue(split(file, 17, 3).isEmpty());
+	}
+
+	@Test
+	void splitKeepsLongLinesAndAMissingFinalNewlineWhole() throws IOException {
+		String longLine = "x".repeat(20_000);
+		Path file = write("a\n" + longLine + "\nb");
+
+		assertEquals(List.of("0-20003", "20003-20004"), ranges(split(file, 0, 4)));
+	}
+
+	@Test
+	void splitCoversTheFileWithChunksThatStartOnLines() throws IOException {
+		Random random = new Random(7);
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			content.append("y".repeat(random.nextInt(40))).append(random.nextBoolean() ? "\r\n" : "\n");
+		}
+		Path file = write(content.toString());
+		byte[] bytes = Files.readAllBytes(file);
+
+		for (long chunkSize : new long[] { 1, 7, 100, 4096, 1 << 20 }) {
+			long expectedStart = 10;
+			for (long[] chunk : split(file, 10, chunkSize)) {
+				assertEquals(expectedStart, chunk[0]);
+				assertTrue(chunk[1] > chunk[0]);
+				assertEquals('\n', bytes[(int) chunk[1] - 1]);
+				expectedStart = chunk[1];
+			}
+			assertEquals(bytes.length, expectedStart);
+		}
+	}
+
+	@Test
+	void rejectsCarryFileLineNumbersAcrossChunks() throws Exception {
+		// About 2.6 MB of CRLF lines, so the file splits into three 1 MiB chunks
+		int lines = 60_000;
+		Map<Integer, String> bad = new TreeMap<>();
+		bad.put(3, "abc");
+		bad.put(17_001, "-1");
+		bad.put(25_000, "");
+		bad.put(lines + 1, "1e2");
+		int blankLine = 30_000;
+
+		StringBuilder csv = new StringBuilder("id,charity_id,donor_name,amount,payment_method\r\n");
+		for (int line = 2; line <= lines + 1; line++) {
+			if (line == blankLine) {
+				csv.append("\r\n");
+				continue;
+			}
+			String amount = bad.getOrDefault(line, "10.00");
+			csv.append("row-").append(line).append(",charity-1,Donor ").append(line).append(',')
+				.append(amount).append(",CARD\r\n");
+		}
+		Path file = write(csv.toString());
+		assertTrue(Files.size(file) > 2 * 1024 * 1024);
+
+		Queue<Transaction> saved = new ConcurrentLinkedQueue<>();
+		ImportReport report = importer(saved).importFile(file);
+
+		assertFalse(report.isAborted());
+		assertEquals(lines - 1, report.getRows());
+		assertEquals(lines - 1 - bad.size(), report.getImported());
+		assertEquals(report.getImported(), saved.size());
+		assertEquals(bad.size(), report.getRejected());
+
+		long[] rejectedLines = report.getSampleRejects().stream().mapToLong(ImportReject::getLine).toArray();
+		assertArrayEquals(new long[] { 3, 17_001, 25_000, lines + 1 }, rejectedLines);
+		assertEquals("Invalid amount 'abc'", report.getSampleRejects().get(0).getReason());
+		assertEquals("Transaction amount must be greater than zero", report.getSampleRejects().get(1).getReason());
+
+		// No CR leaks into the last column, and rows keep their own line's values
+		for (Transaction t : saved) {
+			assertEquals("CARD", t.getPaymentMethod());
+			assertEquals("Donor " + t.getId().substring("row-".length()), t.getDonorName());
+		}
+
+		List<String> rejectsFile = Files.readAllLines(Path.of(report.getRejectsFile()), StandardCharsets.UTF_8);
+		assertEquals("line,reason", rejectsFile.get(0));
+		assertEquals("3,\"Invalid amount 'abc'\"", rejectsFile.get(1));
+		assertEquals(bad.size() + 1, rejectsFile.size());
+	}
+
+	private BulkImporter importer(Queue<Transaction> saved) {
+		TransactionService service = new TransactionService() {
+			@Override
+			public void saveImportedBatch(List<Transaction> transactions) {
+				saved.addAll(transactions);
+			}
+		};
+		BulkImporter importer = new BulkImporter();
+		ReflectionTestUtils.setField(importer, "transactionService", service);
+		ReflectionTestUtils.setField(importer, "parallelism", 3);
+		ReflectionTestUtils.setField(importer, "chunkSizeMb", 1);
+		ReflectionTestUtils.setField(importer, "batchSize", 500);
+		ReflectionTestUtils.setField(importer, "maxInFlightBatches", 2);
+		ReflectionTestUtils.setField(importer, "maxRejects", 100);
+		return importer;
+	}
+
+	private List<long[]> split(Path file, long dataStart, long chunkSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return BulkImporter.split(channel, dataStart, channel.size(), chunkSize);
+		}
+	}
+
+	private static List<String> ranges(List<long[]> chunks) {
+		List<String> ranges = new ArrayList<>();
+		for (long[] chunk : chunks) {
+			ranges.add(chunk[0] + "-" + chunk[1]);
+		}
+		return ranges;
+	}
+
+	private Path write(String content) throws IOException {
+		Path file = directory.resolve("import.csv");
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.demo.bulkimport;
+
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRowParserTest {
+
+	private static final String HEADER = "charity_id,DonorName,amount,payment_method,notes,created_at";
+
+	private final CsvRowParser parser = new CsvRowParser(CsvRowParser.mapHeader(HEADER));
+
+	@Test
+	void headerMatchesColumnsLooselyAndIgnoresUnknownOnes() {
+		assertArrayEquals(new int[] { 1, 2, 3, 4, -1, 9 }, CsvRowParser.mapHeader(HEADER));
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4 },
+			CsvRowParser.mapHeader("\"ID\", charityId ,donor_name,AMOUNT,paymentMethod"));
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+			() -> CsvRowParser.mapHeader("charityId,donorName,paymentMethod"));
+		assertTrue(e.getMessage().contains("amount"));
+	}
+
+	@Test
+	void quotedFieldsKeepCommasAndDoubledQuotes() {
+		Transaction t = parse("\"charity, one\",\"Ann \"\"Nan\"\" Lee\",10.00,CARD,\"x,y\",");
+
+		assertEquals("charity, one", t.getCharityId());
+		assertEquals("Ann \"Nan\" Lee", t.getDonorName());
+		assertEquals("CARD", t.getPaymentMethod());
+		assertNull(t.getCreatedAt());
+	}
+
+	@Test
+	void utf8TextIsDecoded() {
+		Transaction t = parse("c1,J\u00f6rg \u00c5berg,1,CARD,,");
+
+		assertEquals("J\u00f6rg \u00c5berg", t.getDonorName());
+	}
+
+	@Test
+	void malformedQuotingAndFieldCountAreRejected() {
+		assertMalformed("c1,\"Ann,1,CARD,,", "Unterminated quoted field");
+		assertMalformed("c1,\"Ann\"x,1,CARD,,", "Unexpected character after quoted field");
+		assertMalformed("c1,Ann,1,CARD,", "Expected 6 fields, found 5");
+		assertMalformed("c1,Ann,1,CARD,,,", "Expected 6 fields, found 7");
+	}
+
+	@Test
+	void amountsParseAsPlainDecimals() {
+		assertAmount("12.50", "12.50");
+		assertAmount("-3", "-3");
+		assertAmount("+1.5", "1.5");
+		assertAmount("1.", "1");
+		assertAmount(".5", "0.5");
+		assertAmount("0.00", "0.00");
+		assertAmount("123456789012345678", "123456789012345678");
+		// Past 18 digits the fast path hands over to BigDecimal
+		assertAmount("12345678901234567890.12", "12345678901234567890.12");
+
+		assertMalformed("c1,Ann,1e2,CARD,,", "Invalid amount '1e2'");
+		assertMalformed("c1,Ann,1.2.3,CARD,,", "Invalid amount '1.2.3'");
+		assertMalformed("c1,Ann,.,CARD,,", "Invalid amount '.'");
+		assertMalformed("c1,Ann,-,CARD,,", "Invalid amount '-'");
+		assertMalformed("c1,Ann,1 000,CARD,,", "Invalid amount '1 000'");
+	}
+
+	@Test
+	void emptyAmountIsLeftForValidation() {
+		assertNull(parse("c1,Ann,,CARD,,").getAmount());
+	}
+
+	@Test
+	void dateTimesUseFastPathWithFractionsAndSpaceSeparator() {
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20, 30), createdAt("2024-03-05T10:20:30"));
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20, 30), createdAt("2024-03-05 10:20:30"));
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20, 30, 500_000_000), createdAt("2024-03-05T10:20:30.5"));
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20, 30, 123_456_789), createdAt("2024-03-05T10:20:30.123456789"));
+	}
+
+	@Test
+	void otherDateTimeFormsFallBackToLocalDateTimeParse() {
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20), createdAt("2024-03-05T10:20"));
+
+		assertMalformed("c1,Ann,1,CARD,,2024-02-30T00:00:00", "Invalid createdAt '2024-02-30T00:00:00'");
+		assertMalformed("c1,Ann,1,CARD,,2024-0x-05T10:20:30", "Invalid createdAt '2024-0x-05T10:20:30'");
+		assertMalformed("c1,Ann,1,CARD,,2024-03-05T10:20:30.1234567890",
+			"Invalid createdAt '2024-03-05T10:20:30.1234567890'");
+		assertMalformed("c1,Ann,1,CARD,,yesterday", "Invalid createdAt 'yesterday'");
+	}
+
+	@Test
+	void parsesALineInsideALargerBuffer() {
+		String text = "junk\nc1,Ann,7.25,CARD,,\nmore";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		Transaction t = parser.parse(ByteBuffer.wrap(bytes), text.indexOf('\n') + 1, text.lastIndexOf('\n'));
+
+		assertNotNull(t, parser.error());
+		assertEquals(new BigDecimal("7.25"), t.getAmount());
+		assertEquals("CARD", t.getPaymentMethod());
+	}
+
+	private LocalDateTime createdAt(String value) {
+		return parse("c1,Ann,1,CARD,," + value).getCreatedAt();
+	}
+
+	private void assertAmount(String text, String expected) {
+		BigDecimal amount = parse("c1,Ann," + text + ",CARD,,").getAmount();
+		assertEquals(new BigDecimal(expected), amount);
+		assertEquals(new BigDecimal(expected).scale(), amount.scale());
+	}
+
+	private void assertMalformed(String line, String error) {
+		assertNull(parseOrNull(line));
+		assertEquals(error, parser.error());
+	}
+
+	private Transaction parse(String line) {
+		Transaction t = parseOrNull(line);
+		assertNotNull(t, parser.error());
+		return t;
+	}
+
+	private Transaction parseOrNull(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		return parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+	}
+}
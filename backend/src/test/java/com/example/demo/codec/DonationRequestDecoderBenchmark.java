@@ -0,0 +1,109 @@
+package com.example.demo.codec;
+
+import com.example.demo.entity.Transaction;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares allocations per request and decode throughput of the streaming
+ * {@link DonationRequestDecoder} against the previous path: Jackson data
+ * binding into {@link Transaction}, the controller's amount check and
+ * {@code TransactionService.validateTransaction}.
+ *
+ * Run with: ./gradlew decoderBenchmark [-Prequests=1000000]
+ */
+public class DonationRequestDecoderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        byte[][] payloads = samplePayloads(1024);
+
+        // Mirrors the spring.jackson settings in application.yml
+        ObjectMapper json = new ObjectMapper();
+        json.registerModule(new JavaTimeModule());
+        json.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        DonationRequestDecoder decoder = new DonationRequestDecoder();
+
+        System.out.printf("requests=%d%n", requests);
+        System.out.printf("%-10s %14s %16s%n", "path", "requests/s", "bytes/request");
+
+        run("binding", requests, payloads, payload -> {
+            Transaction t = json.readValue(payload, Transaction.class);
+            if (t.getAmount() == null || t.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalStateException("Invalid transaction amount");
+            }
+            validateLikeService(t);
+        });
+        run("streaming", requests, payloads, payload -> {
+            if (decoder.decode(new ByteArrayInputStream(payload)).hasErrors()) {
+                throw new IllegalStateException("Unexpected validation errors");
+            }
+        });
+    }
+
+    private interface Decode {
+        void apply(byte[] payload) throws Exception;
+    }
+
+    private static void run(String name, int requests, byte[][] payloads, Decode decode) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < requests; i++) {
+                decode.apply(payloads[i % payloads.length]);
+            }
+        }
+        long thread = Thread.currentThread().getId();
+        long nanos = 0;
+        long bytes = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                decode.apply(payloads[i % payloads.length]);
+            }
+            nanos += System.nanoTime() - start;
+            bytes += THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        }
+        double total = (double) requests * MEASURED_ROUNDS;
+        System.out.printf("%-10s %14.0f %16.0f%n", name, total / (nanos / 1e9), bytes / total);
+    }
+
+    /**
+     * The checks TransactionService.validateTransaction made before it switched to isBlank()
+     */
+    private static void validateLikeService(Transaction t) {
+        if (t.getAmount() == null || t.getAmount().compareTo(BigDecimal.ZERO) <= 0
+                || t.getCharityId() == null || t.getCharityId().trim().isEmpty()
+                || t.getDonorName() == null || t.getDonorName().trim().isEmpty()
+                || t.getPaymentMethod() == null || t.getPaymentMethod().trim().isEmpty()) {
+            throw new IllegalStateException("Invalid transaction");
+        }
+    }
+
+    private static byte[][] samplePayloads(int count) {
+        String[] methods = { "CREDIT_CARD", "BANK_TRANSFER", "CRYPTO" };
+        byte[][] payloads = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            String body = "{\"charityId\":\"charity-" + (i % 50) + "\","
+                + "\"donorName\":\"Donor " + (i % 5000) + "\","
+                + "\"amount\":" + (1 + i % 500) + "." + (10 + i % 90) + ","
+                + "\"paymentMethod\":\"" + methods[i % methods.length] + "\","
+                + (i % 4 == 0 ? "\"message\":\"Keep up the great work!\"," : "")
+                + "\"description\":\"Monthly donation\"}";
+            payloads[i] = body.getBytes(StandardCharsets.UTF_8);
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo.codec;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DonationRequestDecoderTest {
+
+	private static final String REQUIRED = "\"charityId\":\"c1\",\"donorName\":\"Ann\",\"paymentMethod\":\"CARD\"";
+
+	private final DonationRequestDecoder decoder = new DonationRequestDecoder();
+
+	@Test
+	void decodesAllKnownFields() throws IOException {
+		Transaction t = decode("{ \"id\": \"t1\", \"charityId\": \"c1\", \"donorName\": \"Ann\", \"amount\": 12.5,"
+			+ " \"paymentMethod\": \"CARD\", \"status\": null, \"message\": \"hi\", \"description\": \"d\","
+			+ " \"transactionHash\": \"0xab\", \"createdAt\": \"2024-03-05T10:20:30\" }\n");
+
+		assertEquals("t1", t.getId());
+		assertEquals("c1", t.getCharityId());
+		assertEquals(new BigDecimal("12.50"), t.getAmount());
+		assertNull(t.getStatus());
+		assertEquals("hi", t.getMessage());
+		assertEquals("d", t.getDescription());
+		assertEquals("0xab", t.getTransactionHash());
+		assertEquals(LocalDateTime.of(2024, 3, 5, 10, 20, 30), t.getCreatedAt());
+	}
+
+	@Test
+	void escapedKeysMatchTheirFields() throws IOException {
+		Transaction t = decode("{\"char\\u0069tyId\":\"c1\",\"donor\\u004eame\":\"Ann\",\"\\u0061mount\":\"3\","
+			+ "\"payment\\u004dethod\":\"CARD\",\"unkn\\u006fwn\":1}");
+
+		assertEquals("c1", t.getCharityId());
+		assertEquals("Ann", t.getDonorName());
+		assertEquals(new BigDecimal("3.00"), t.getAmount());
+		assertEquals("CARD", t.getPaymentMethod());
+	}
+
+	@Test
+	void escapedValuesAndUtf8AreDecoded() throws IOException {
+		Transaction t = decode("{" + REQUIRED + ",\"amount\":1,"
+			+ "\"message\":\"say \\\"hi\\\" \\\\ \\/ \\b\\f\\n\\r\\t end\","
+			+ "\"description\":\"J\u00f6rg \\u00c5berg\"}");
+
+		assertEquals("say \"hi\" \\ / \b\f\n\r\t end", t.getMessage());
+		assertEquals("J\u00f6rg \u00c5berg", t.getDescription());
+	}
+
+	@Test
+	void surrogatePairEscapesJoinIntoOneCodePoint() throws IOException {
+		Transaction t = decode("{" + REQUIRED + ",\"amount\":1,\"message\":\"\\ud83d\\ude00 and \\uD83D\\uDE00\","
+			+ "\"description\":\"\uD83D\uDE00\"}");
+
+		assertEquals("\uD83D\uDE00 and \uD83D\uDE00", t.getMessage());
+		assertEquals(7, t.getMessage().codePointCount(0, t.getMessage().length()));
+		assertEquals("\uD83D\uDE00", t.getDescription());
+	}
+
+	@Test
+	void badEscapesAreMalformed() throws IOException {
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"message\":\"\\x\"}", "invalid escape");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"message\":\"\\u12\"}", "truncated unicode escape");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"message\":\"\\u12g4\"}", "invalid unicode escape");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"message\":\"a\tb\"}", "control character in string");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"message\":\"open}", "unterminated string");
+	}
+
+	@Test
+	void nestedUnknownFieldsAreSkipped() throws IOException {
+		Transaction t = decode("{\"meta\":{\"tags\":[1,-2.5e3,\"x\",true,false,null,{},[]],\"deep\":{\"a\":{\"b\":[[{}]]}}},"
+			+ REQUIRED + ",\"flag\":true,\"amount\":2,\"extra\":[\"}\",\"]\"]}");
+
+		assertEquals(new BigDecimal("2.00"), t.getAmount());
+		assertEquals("CARD", t.getPaymentMethod());
+	}
+
+	@Test
+	void unknownFieldsNestedPastTheDepthLimitAreRejected() throws IOException {
+		int allowed = DonationRequestDecoder.MAX_DEPTH + 1;
+		assertFalse(decodeRequest("{\"x\":" + "[".repeat(allowed) + "]".repeat(allowed) + "," + REQUIRED + ",\"amount\":1}")
+			.hasErrors());
+
+		int tooDeep = allowed + 1;
+		assertMalformed("{\"x\":" + "[".repeat(tooDeep) + "]".repeat(tooDeep) + "," + REQUIRED + ",\"amount\":1}",
+			"nested too deeply");
+		// Never recursed into unbounded: far deeper input still fails the same way
+		assertMalformed("{\"x\":" + "{\"a\":".repeat(10_000), "nested too deeply");
+	}
+
+	@Test
+	void bodiesAreCappedAt64KiB() throws IOException {
+		String prefix = "{" + REQUIRED + ",\"amount\":1,\"message\":\"";
+		String suffix = "\"}";
+		String atLimit = prefix + "m".repeat(DonationRequestDecoder.MAX_BODY_BYTES - prefix.length() - suffix.length()) + suffix;
+		assertEquals(65_536, atLimit.length());
+
+		Transaction t = decode(atLimit);
+		assertEquals(65_536 - prefix.length() - suffix.length(), t.getMessage().length());
+
+		DonationRequest tooLarge = decoder.decode(trickle(atLimit + " "));
+		assertEquals(Map.of("body", "must not exceed 65536 bytes"), tooLarge.getErrors());
+		assertNull(tooLarge.getTransaction());
+
+		// The per-thread buffer is reused; a small body after a large one sees only its own bytes
+		assertEquals(new BigDecimal("4.00"), decode("{" + REQUIRED + ",\"amount\":4}").getAmount());
+	}
+
+	@Test
+	void trailingGarbageAndTrailingCommasAreMalformed() throws IOException {
+		String body = "{" + REQUIRED + ",\"amount\":1}";
+		assertFalse(decodeRequest(body + " \r\n\t").hasErrors());
+
+		assertMalformed(body + " x", "unexpected content after the object");
+		assertMalformed(body + "{}", "unexpected content after the object");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,}", "expected '\"'");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"x\":[1,]}", "expected a value");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1,\"x\":{\"a\":1,}}", "expected '\"'");
+		assertMalformed("{" + REQUIRED + ",\"amount\":1", "unexpected end of input");
+		assertMalformed("{" + REQUIRED + " \"amount\":1}", "expected '}'");
+	}
+
+	@Test
+	void nonObjectBodiesAreRejected() throws IOException {
+		assertEquals(Map.of("body", "must be a JSON object"), decodeRequest("").getErrors());
+		assertEquals(Map.of("body", "must be a JSON object"), decodeRequest("  [1]").getErrors());
+		assertEquals(Map.of("body", "must be a JSON object"), decodeRequest("\"{}\"").getErrors());
+	}
+
+	@Test
+	void amountsAreExactDecimalsWithAtMostTwoPlaces() throws IOException {
+		assertAmount("12.5", "12.50");
+		assertAmount("1.", "1.00");
+		assertAmount("\"1.\"", "1.00");
+		assertAmount("1.000", "1.00");
+		assertAmount("0.01", "0.01");
+		assertAmount("\"12.34\"", "12.34");
+		assertAmount("\"+7\"", "7.00");
+		// The largest amount TransactionService accepts
+		assertAmount("92233720368547.75", TransactionService.MAX_AMOUNT.toPlainString());
+		assertAmount("92233720368547", "92233720368547.00");
+		assertAmount("\"92233720368547.7\"", "92233720368547.70");
+
+		assertAmountError("0.00", "must be greater than zero");
+		assertAmountError("\"0\"", "must be greater than zero");
+		assertAmountError("-5", "must be greater than zero");
+		assertAmountError("1.005", "must have at most 2 decimal places");
+		assertAmountError("\"0.001\"", "must have at most 2 decimal places");
+		assertAmountError("92233720368547.76", "is too large");
+		// Under the bound until scaled to minor units
+		assertAmountError("92233720368548", "is too large");
+		assertAmountError("1000000000000000", "is too large");
+		assertAmountError("92233720368547.8", "is too large");
+		assertAmountError("\"92233720368548.\"", "is too large");
+		assertAmountError("1" + "0".repeat(40), "is too large");
+		assertAmountError("1e2", "must be a plain decimal number");
+		assertAmountError("\"1E2\"", "must be a plain decimal number");
+		assertAmountError("1.2.3", "must be a plain decimal number");
+		assertAmountError("\"abc\"", "must be a plain decimal number");
+		assertAmountError("\"\"", "must be a plain decimal number");
+		assertAmountError("\"-\"", "must be a plain decimal number");
+		assertAmountError("true", "must be a number");
+		assertAmountError("[1]", "must be a number");
+		assertMalformed("{" + REQUIRED + ",\"amount\":+1}", "expected a value");
+	}
+
+	@Test
+	void scalarsAreNotCoercedToStrings() throws IOException {
+		assertEquals(Map.of("charityId", "must be a string"),
+			decodeRequest("{\"charityId\":123,\"donorName\":\"Ann\",\"paymentMethod\":\"CARD\",\"amount\":1}").getErrors());
+		assertEquals(Map.of("message", "must be a string"),
+			decodeRequest("{" + REQUIRED + ",\"amount\":1,\"message\":true}").getErrors());
+		assertEquals(Map.of("createdAt", "must be an ISO-8601 date-time string"),
+			decodeRequest("{" + REQUIRED + ",\"amount\":1,\"createdAt\":\"yesterday\"}").getErrors());
+	}
+
+	@Test
+	void everyOffendingFieldIsReportedInOneResponse() throws IOException {
+		DonationRequest request = decodeRequest("{\"amount\":\"1e2\",\"charityId\":5,\"donorName\":\"  \","
+			+ "\"status\":{\"a\":1},\"amount\":-1}");
+
+		assertTrue(request.hasErrors());
+		assertNull(request.getTransaction());
+		List<String> fields = new ArrayList<>(request.getErrors().keySet());
+		assertEquals(List.of("amount", "charityId", "donorName", "status", "paymentMethod"), fields);
+		// The first problem found for a field is the one reported
+		assertEquals("must be a plain decimal number", request.getErrors().get("amount"));
+		assertEquals("must be a string", request.getErrors().get("charityId"));
+		assertEquals("must not be blank", request.getErrors().get("donorName"));
+		assertEquals("must be a string", request.getErrors().get("status"));
+		assertEquals("is required", request.getErrors().get("paymentMethod"));
+	}
+
+	@Test
+	void missingRequiredFieldsAreListedInValidationOrder() throws IOException {
+		DonationRequest request = decodeRequest("{\"paymentMethod\":null}");
+
+		assertEquals(List.of("amount", "charityId", "donorName", "paymentMethod"),
+			new ArrayList<>(request.getErrors().keySet()));
+		assertTrue(request.getErrors().values().stream().allMatch("is required"::equals));
+	}
+
+	private void assertAmount(String json, String expected) throws IOException {
+		BigDecimal amount = decode("{" + REQUIRED + ",\"amount\":" + json + "}").getAmount();
+		assertEquals(new BigDecimal(expected), amount, json);
+		assertEquals(2, amount.scale(), json);
+	}
+
+	private void assertAmountError(String json, String message) throws IOException {
+		assertEquals(Map.of("amount", message), decodeRequest("{" + REQUIRED + ",\"amount\":" + json + "}").getErrors(), json);
+	}
+
+	private void assertMalformed(String body, String detail) throws IOException {
+		Map<String, String> errors = decodeRequest(body).getErrors();
+		assertEquals(1, errors.size(), body);
+		String message = errors.get("body");
+		assertTrue(message.startsWith("malformed JSON at offset ") && message.endsWith(": " + detail), message);
+	}
+
+	private Transaction decode(String body) throws IOException {
+		DonationRequest request = decodeRequest(body);
+		assertFalse(request.hasErrors(), String.valueOf(request.getErrors()));
+		return request.getTransaction();
+	}
+
+	private DonationRequest decodeRequest(String body) throws IOException {
+		return decoder.decode(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * A stream that hands out a few bytes per read, like a slow client
+	 */
+	private static InputStream trickle(String body) {
+		return new FilterInputStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return super.read(b, off, Math.min(len, 7));
+			}
+		};
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.demo.codec;
+
+import com.example.demo.controller.TransactionController.ApiResponse;
+import com.example.demo.entity.Transaction;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares payload size and encode/decode throughput of the JSON response path
+ * against the compact CBOR and Smile encodings.
+ *
+ * Run with: ./gradlew codecBenchmark [-Prows=50000]
+ */
+public class TransactionCodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        ApiResponse<List<Transaction>> response =
+            new ApiResponse<>(true, "Transactions retrieved successfully", sampleTransactions(rows));
+
+        // Mirrors the spring.jackson settings in application.yml
+        ObjectMapper json = new ObjectMapper();
+        json.registerModule(new JavaTimeModule());
+        json.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        json.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        TransactionCodec codec = new TransactionCodec();
+
+        System.out.printf("rows=%d%n", rows);
+        System.out.printf("%-8s %12s %14s %14s%n", "format", "bytes", "encode rows/s", "decode rows/s");
+
+        runJson(json, response, rows);
+        runBinary(codec, response, MediaType.APPLICATION_CBOR, "cbor", rows);
+        runBinary(codec, response, TransactionCodec.APPLICATION_SMILE, "smile", rows);
+    }
+
+    private static void runJson(ObjectMapper json, ApiResponse<List<Transaction>> response, int rows) throws Exception {
+        byte[] payload = json.writeValueAsBytes(response);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            json.writeValueAsBytes(response);
+            json.readValue(payload, JsonEnvelope.class);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            json.writeValueAsBytes(response);
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            json.readValue(payload, JsonEnvelope.class);
+            decodeNanos += System.nanoTime() - start;
+        }
+        report("json", payload.length, rows, encodeNanos, decodeNanos);
+    }
+
+    private static void runBinary(TransactionCodec codec, ApiResponse<List<Transaction>> response,
+                                  MediaType mediaType, String name, int rows) throws Exception {
+        byte[] payload = encode(codec, response, mediaType);
+        int decoded = codec.readTransactions(new ByteArrayInputStream(payload), mediaType).size();
+        if (decoded != rows) {
+            throw new IllegalStateException(name + " decoded " + decoded + " of " + rows + " rows");
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encode(codec, response, mediaType);
+            codec.readTransactions(new ByteArrayInputStream(payload), mediaType);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encode(codec, response, mediaType);
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            codec.readTransactions(new ByteArrayInputStream(payload), mediaType);
+            decodeNanos += System.nanoTime() - start;
+        }
+        report(name, payload.length, rows, encodeNanos, decodeNanos);
+    }
+
+    private static byte[] encode(TransactionCodec codec, ApiResponse<?> response, MediaType mediaType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        codec.writeResponse(response, out, mediaType);
+        return out.toByteArray();
+    }
+
+    private static void report(String name, int bytes, int rows, long encodeNanos, long decodeNanos) {
+        double totalRows = (double) rows * MEASURED_ROUNDS;
+        System.out.printf("%-8s %12d %14.0f %14.0f%n", name, bytes,
+            totalRows / (encodeNanos / 1e9), totalRows / (decodeNanos / 1e9));
+    }
+
+    private static List<Transaction> sampleTransactions(int rows) {
+        String[] methods = { "CREDIT_CARD", "BANK_TRANSFER", "CRYPTO" };
+        String[] statuses = { "PENDING", "CONFIRMED", "FAILED" };
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction t = new Transaction();
+            t.setId("TXN-" + (1_700_000_000_000L + i) + "-" + Integer.toHexString(0x10000000 + i));
+            t.setCharityId("charity-" + (i % 50));
+            t.setDonorName("Donor " + (i % 5000));
+            t.setAmount(BigDecimal.valueOf(100 + (i * 37L) % 100_000, 2));
+            t.setPaymentMethod(methods[i % methods.length]);
+            t.setStatus(statuses[i % statuses.length]);
+            t.setMessage(i % 4 == 0 ? "Keep up the great work!" : null);
+            t.setTransactionHash(i % 3 == 2 ? "0x" + Long.toHexString(i * 2654435761L) + "deadbeefcafebabe" : null);
+            t.setCreatedAt(base.plusSeconds(i * 61L));
+            t.setUpdatedAt(base.plusSeconds(i * 61L + 5));
+            transactions.add(t);
+        }
+        return transactions;
+    }
+
+    public static class JsonEnvelope {
+        public boolean success;
+        public String message;
+        public List<Transaction> data;
+        public long timestamp;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.codec;
+
+import com.example.demo.controller.TransactionController.ApiResponse;
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionCodecTest {
+
+	private final TransactionCodec codec = new TransactionCodec();
+
+	@Test
+	void cborRoundTripsTransactionList() throws IOException {
+		assertListRoundTrip(MediaType.APPLICATION_CBOR);
+	}
+
+	@Test
+	void smileRoundTripsTransactionList() throws IOException {
+		assertListRoundTrip(TransactionCodec.APPLICATION_SMILE);
+	}
+
+	@Test
+	void cborRoundTripsSingleTransaction() throws IOException {
+		assertSingleRoundTrip(MediaType.APPLICATION_CBOR);
+	}
+
+	@Test
+	void smileRoundTripsSingleTransaction() throws IOException {
+		assertSingleRoundTrip(TransactionCodec.APPLICATION_SMILE);
+	}
+
+	@Test
+	void nonTransactionDataDecodesToNoRows() throws IOException {
+		byte[] payload = encode(new ApiResponse<>(true, "ok", List.of("a", "b")), MediaType.APPLICATION_CBOR);
+
+		assertTrue(codec.readTransactions(new ByteArrayInputStream(payload), MediaType.APPLICATION_CBOR).isEmpty());
+	}
+
+	@Test
+	void fieldErrorsRoundTripInBothFormats() throws IOException {
+		Map<String, String> errors = new LinkedHashMap<>();
+		errors.put("amount", "must be a plain decimal number");
+		errors.put("charityId", "is required");
+		ApiResponse<Object> rejected = new ApiResponse<>(false, "Invalid transaction", null);
+		rejected.setErrors(errors);
+
+		for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, TransactionCodec.APPLICATION_SMILE)) {
+			byte[] payload = encode(rejected, mediaType);
+			ApiResponse<List<Transaction>> decoded = codec.readResponse(new ByteArrayInputStream(payload), mediaType);
+
+			assertFalse(decoded.isSuccess());
+			assertEquals("Invalid transaction", decoded.getMessage());
+			assertEquals(rejected.getTimestamp(), decoded.getTimestamp());
+			assertEquals(List.copyOf(errors.entrySet()), List.copyOf(decoded.getErrors().entrySet()));
+			assertTrue(decoded.getData().isEmpty());
+		}
+
+		// Successful responses carry no errors field
+		byte[] ok = encode(new ApiResponse<>(true, "ok", full(1)), MediaType.APPLICATION_CBOR);
+		assertNull(codec.readResponse(new ByteArrayInputStream(ok), MediaType.APPLICATION_CBOR).getErrors());
+	}
+
+	@Test
+	void truncatedPayloadIsRejected() throws IOException {
+		byte[] payload = encode(new ApiResponse<>(true, "ok", List.of(full(1))), MediaType.APPLICATION_CBOR);
+		byte[] truncated = Arrays.copyOf(payload, 12);
+
+		assertThrows(IOException.class,
+			() -> codec.readTransactions(new ByteArrayInputStream(truncated), MediaType.APPLICATION_CBOR));
+	}
+
+	private void assertListRoundTrip(MediaType mediaType) throws IOException {
+		List<Transaction> rows = List.of(full(1), sparse(2), full(3));
+		byte[] payload = encode(new ApiResponse<>(true, "Transactions retrieved successfully", rows), mediaType);
+
+		List<Transaction> decoded = codec.readTransactions(new ByteArrayInputStream(payload), mediaType);
+
+		assertEquals(rows.size(), decoded.size());
+		for (int i = 0; i < rows.size(); i++) {
+			assertSameRow(rows.get(i), decoded.get(i));
+		}
+	}
+
+	private void assertSingleRoundTrip(MediaType mediaType) throws IOException {
+		Transaction row = full(7);
+		byte[] payload = encode(new ApiResponse<>(true, "Transaction retrieved successfully", row), mediaType);
+
+		List<Transaction> decoded = codec.readTransactions(new ByteArrayInputStream(payload), mediaType);
+
+		assertEquals(1, decoded.size());
+		assertSameRow(row, decoded.get(0));
+	}
+
+	private byte[] encode(ApiResponse<?> response, MediaType mediaType) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeResponse(response, out, mediaType);
+		return out.toByteArray();
+	}
+
+	private static Transaction full(int n) {
+		Transaction t = new Transaction();
+		t.setId("TXN-" + n);
+		t.setCharityId("charity-" + n);
+		t.setDonorName("Donor Zo\u00eb " + n);
+		t.setAmount(new BigDecimal("1234.50").add(BigDecimal.valueOf(n)));
+		t.setPaymentMethod("CREDIT_CARD");
+		t.setStatus("CONFIRMED");
+		t.setMessage("Keep up the great work!");
+		t.setDescription("Donation " + n);
+		t.setTransactionHash("0xdeadbeef" + n);
+		t.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+		t.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 12, 31, 0));
+		return t;
+	}
+
+	private static Transaction sparse(int n) {
+		Transaction t = new Transaction();
+		t.setId("TXN-" + n);
+		t.setAmount(new BigDecimal("0.01"));
+		return t;
+	}
+
+	private static void assertSameRow(Transaction expected, Transaction actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getCharityId(), actual.getCharityId());
+		assertEquals(expected.getDonorName(), actual.getDonorName());
+		assertEquals(expected.getAmount(), actual.getAmount());
+		assertEquals(expected.getPaymentMethod(), actual.getPaymentMethod());
+		assertEquals(expected.getStatus(), actual.getStatus());
+		assertEquals(expected.getMessage(), actual.getMessage());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getTransactionHash(), actual.getTransactionHash());
+		assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+		assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+	}
+}
@@ -0,0 +1,167 @@
+package com.example.demo.leaderboard;
+
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+	@Test
+	void exactRankingMatchesBruteForceUnderAddsAndRemovals() {
+		ExactTopK topK = new ExactTopK(5);
+		Map<String, Long> totals = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			String donor = "donor-" + random.nextInt(50);
+			long current = totals.getOrDefault(donor, 0L);
+			long delta = random.nextInt(4) == 0 ? -Math.min(current, random.nextInt(500)) : random.nextInt(1000) + 1;
+			topK.add(donor, delta);
+			totals.merge(donor, delta, Long::sum);
+
+			if (i % 250 == 0) {
+				assertEquals(expectedTop(totals, 5), names(topK.flush()));
+			}
+		}
+		assertEquals(expectedTop(totals, 5), names(topK.flush()));
+	}
+
+	@Test
+	void donorsLeaveTheWindowWhenTheirBucketExpires() {
+		long now = System.currentTimeMillis();
+		Leaderboard board = new Leaderboard(new ExactTopK(10), 60_000, 6);
+		board.add("alice", 500, now);
+		board.add("bob", 300, now);
+		board.add("alice", 100, now);
+		assertEquals(List.of("alice", "bob"), names(board.top(10)));
+		assertEquals(600, board.top(1).get(0).getTotal().movePointRight(DonorLeaderboards.AMOUNT_SCALE).longValueExact());
+
+		board.expire(now + 120_000);
+		assertTrue(board.top(10).isEmpty());
+
+		board.add("carol", 50, now + 120_000);
+		assertEquals(List.of("carol"), names(board.top(10)));
+	}
+
+	@Test
+	void concurrentWritersAreAllAppliedBeforeTheNextRead() throws Exception {
+		Leaderboard board = new Leaderboard(new ExactTopK(10), 0, 1);
+		int threads = 8;
+		int perThread = 10_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			String donor = "donor-" + (t % 3);
+			Thread writer = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < perThread; i++) {
+					board.add(donor, 1, 0);
+				}
+			});
+			writer.start();
+			writers.add(writer);
+		}
+		start.countDown();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+
+		long sum = 0;
+		for (LeaderboardEntry entry : board.top(10)) {
+			sum += entry.getTotal().movePointRight(DonorLeaderboards.AMOUNT_SCALE).longValueExact();
+		}
+		assertEquals((long) threads * perThread, sum);
+	}
+
+	@Test
+	void donationTimesAreReadInTheSystemZone() {
+		TimeZone original = TimeZone.getDefault();
+		try {
+			// West and east of UTC: a new donation must land in the current hour either way
+			for (String zone : List.of("Etc/GMT+9", "Etc/GMT-9")) {
+				TimeZone.setDefault(TimeZone.getTimeZone(zone));
+				DonorLeaderboards leaderboards = leaderboards("1h");
+				leaderboards.apply(confirmed("t1", "alice", "5.00", LocalDateTime.now()));
+				assertEquals(List.of("alice"), names(leaderboards.top(null, "1h", 10)), zone);
+
+				leaderboards.remove("t1");
+				assertTrue(leaderboards.top(null, "1h", 10).isEmpty(), zone);
+			}
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
+	@Test
+	void removingAFutureDatedDonationReversesTheBucketItWasAddedTo() throws InterruptedException {
+		// 2s window in 200ms buckets
+		DonorLeaderboards leaderboards = leaderboards("2s");
+		leaderboards.apply(confirmed("t1", "alice", "5.00", LocalDateTime.now().plusHours(3)));
+		Thread.sleep(600);
+		leaderboards.remove("t1");
+		assertTrue(leaderboards.top(null, "2s", 10).isEmpty());
+
+		Thread.sleep(1500);
+		leaderboards.apply(confirmed("t2", "alice", "2.00", LocalDateTime.now()));
+		// Past the expiry of the bucket the removal ran in, but not of t2's
+		Thread.sleep(900);
+		List<LeaderboardEntry> top = leaderboards.top(null, "2s", 10);
+		assertEquals(List.of("alice"), names(top));
+		assertEquals(new BigDecimal("2.00"), top.get(0).getTotal());
+	}
+
+	private static DonorLeaderboards leaderboards(String window) {
+		DonorLeaderboards leaderboards = new DonorLeaderboards();
+		ReflectionTestUtils.setField(leaderboards, "mode", "exact");
+		ReflectionTestUtils.setField(leaderboards, "maxK", 10);
+		ReflectionTestUtils.setField(leaderboards, "spaceSavingCapacity", 100);
+		ReflectionTestUtils.setField(leaderboards, "windowSpecs", List.of(window));
+		ReflectionTestUtils.setField(leaderboards, "bucketsPerWindow", 10);
+		leaderboards.init();
+		leaderboards.markReady();
+		return leaderboards;
+	}
+
+	private static Transaction confirmed(String id, String donor, String amount, LocalDateTime createdAt) {
+		Transaction t = new Transaction();
+		t.setId(id);
+		t.setCharityId("charity-1");
+		t.setDonorName(donor);
+		t.setAmount(new BigDecimal(amount));
+		t.setStatus("CONFIRMED");
+		t.setCreatedAt(createdAt);
+		return t;
+	}
+
+	private static List<String> expectedTop(Map<String, Long> totals, int k) {
+		return totals.entrySet().stream()
+			.filter(e -> e.getValue() > 0)
+			.sorted(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+				.thenComparing(Map.Entry::getKey))
+			.limit(k)
+			.map(Map.Entry::getKey)
+			.toList();
+	}
+
+	private static List<String> names(List<LeaderboardEntry> entries) {
+		return entries.stream().map(LeaderboardEntry::getDonorName).toList();
+	}
+}
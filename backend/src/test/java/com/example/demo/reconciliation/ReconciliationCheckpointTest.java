@@ -0,0 +1,91 @@
+package com.example.demo.reconciliation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReconciliationCheckpointTest {
+
+	private static final LocalDateTime SINCE = LocalDateTime.of(2024, 6, 1, 0, 0);
+	private static final LocalDateTime UNTIL = LocalDateTime.of(2024, 6, 2, 0, 0);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void missingFileLoadsAsNoCheckpoint() throws Exception {
+		assertNull(ReconciliationCheckpoint.load(directory.resolve("checkpoint.properties")));
+	}
+
+	@Test
+	void pagesAccumulateAndSurviveSaveAndLoad() throws Exception {
+		Path file = directory.resolve("checkpoint.properties");
+		ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint("run-1", SINCE, UNTIL);
+		checkpoint.completePage("100:a", 120, 10, 7, 2);
+		checkpoint.completePage("200:b", 300, 10, 6, 3);
+		checkpoint.save(file);
+
+		ReconciliationCheckpoint loaded = ReconciliationCheckpoint.load(file);
+		assertEquals("run-1", loaded.getRunId());
+		assertEquals(SINCE, loaded.getSince());
+		assertEquals(UNTIL, loaded.getUntil());
+		assertEquals("200:b", loaded.getCursor());
+		assertEquals(300, loaded.getReportBytes());
+		assertEquals(20, loaded.getScanned());
+		assertEquals(13, loaded.getVerified());
+		assertEquals(5, loaded.getMismatches());
+		assertFalse(loaded.isComplete());
+
+		// The last page has no next cursor
+		loaded.completePage(null, 300, 4, 4, 0);
+		loaded.save(file);
+		loaded = ReconciliationCheckpoint.load(file);
+		assertTrue(loaded.isComplete());
+		assertNull(loaded.getCursor());
+		assertEquals(24, loaded.getScanned());
+		assertEquals(List.of("checkpoint.properties"), fileNames());
+	}
+
+	@Test
+	void legacyCheckpointResumesFromWhereItGotTo() throws Exception {
+		Path file = directory.resolve("checkpoint.properties");
+		LocalDateTime completedThrough = SINCE.plusHours(6);
+		Files.writeString(file, "runId=run-0\n"
+			+ "until=" + UNTIL + "\n"
+			+ "completedThrough=" + completedThrough + "\n"
+			+ "scanned=50\nverified=40\nmismatches=1\n");
+
+		ReconciliationCheckpoint loaded = ReconciliationCheckpoint.load(file);
+		assertEquals("run-0", loaded.getRunId());
+		assertEquals(completedThrough, loaded.getSince());
+		assertEquals(UNTIL, loaded.getUntil());
+		assertNull(loaded.getCursor());
+		// Unknown report length: nothing is cut from the report
+		assertEquals(-1, loaded.getReportBytes());
+		assertEquals(50, loaded.getScanned());
+		assertEquals(40, loaded.getVerified());
+		assertEquals(1, loaded.getMismatches());
+		assertFalse(loaded.isComplete());
+
+		Files.writeString(file, "runId=run-0\nuntil=" + UNTIL + "\ncompletedThrough=" + UNTIL + "\n");
+		assertTrue(ReconciliationCheckpoint.load(file).isComplete());
+	}
+
+	private List<String> fileNames() throws IOException {
+		try (Stream<Path> list = Files.list(directory)) {
+			return list.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package com.example.demo.reconciliation;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.EmbeddedTransactionRepository;
+import com.example.demo.resilience.DependencyGuardRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReconciliationJobTest {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2024, 6, 1, 12, 0);
+	private static final int ROWS = 45;
+	private static final int PAGE_SIZE = 10;
+	// Confirmed rows with a good hash: one on page 1, one on page 3
+	private static final int FLAKY_ROW = 6;
+	private static final int STUCK_ROW = 25;
+
+	@TempDir
+	Path directory;
+
+	private EmbeddedTransactionRepository repository;
+	private DependencyGuardRegistry guards;
+	private final List<ReconciliationJob> jobs = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		repository = new EmbeddedTransactionRepository();
+		ReflectionTestUtils.setField(repository, "directory", directory.resolve("store").toString());
+		ReflectionTestUtils.setField(repository, "segmentSizeMb", 1);
+		repository.open();
+		for (int i = 0; i < ROWS; i++) {
+			repository.save(row(i));
+		}
+		guards = new DependencyGuardRegistry();
+		ReflectionTestUtils.setField(guards, "environment", new StandardEnvironment());
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (ReconciliationJob job : jobs) {
+			job.shutdown();
+		}
+		guards.shutdown();
+		repository.close();
+	}
+
+	@Test
+	void runReportsEveryMismatchOnceAndCompletes() throws IOException {
+		ReconciliationCheckpoint checkpoint = job(this::onChain).run();
+
+		assertTrue(checkpoint.isComplete());
+		assertEquals(ROWS, checkpoint.getScanned());
+		assertEquals(confirmedRows(0).size(), checkpoint.getVerified());
+		assertEquals(expectedMismatches(0).size(), checkpoint.getMismatches());
+		assertEquals(expectedMismatches(0), reportedIds());
+	}
+
+	@Test
+	void failingLookupsAreRetriedAndThenLeftForTheNextRun() throws IOException {
+		AtomicInteger flakyCalls = new AtomicInteger();
+		AtomicBoolean chainDown = new AtomicBoolean(true);
+		ChainClient chain = hash -> {
+			if (hash.equals(hash(FLAKY_ROW)) && flakyCalls.incrementAndGet() <= 2) {
+				throw new IOException("timeout");
+			}
+			if (hash.equals(hash(STUCK_ROW)) && chainDown.get()) {
+				throw new IOException("node down");
+			}
+			return onChain(hash);
+		};
+
+		// Two failures fit in three attempts; the row that keeps failing stops the run before its page
+		ReconciliationCheckpoint stopped = job(chain).run();
+		assertFalse(stopped.isComplete());
+		assertEquals(2 * PAGE_SIZE, stopped.getScanned());
+		assertEquals(3, flakyCalls.get());
+		assertEquals(expectedMismatchesBefore(2 * PAGE_SIZE), reportedIds());
+		assertEquals(2 * PAGE_SIZE, savedCheckpoint().getScanned());
+
+		chainDown.set(false);
+		ReconciliationCheckpoint resumed = job(chain).run();
+		assertTrue(resumed.isComplete());
+		assertEquals(stopped.getRunId(), resumed.getRunId());
+		assertEquals(ROWS, resumed.getScanned());
+		assertEquals(expectedMismatches(0), reportedIds());
+	}
+
+	@Test
+	void shutdownDuringAPageLeavesItForTheNextRun() throws Exception {
+		CountDownLatch blocked = new CountDownLatch(1);
+		ChainClient hanging = hash -> {
+			if (hash.equals(hash(STUCK_ROW))) {
+				blocked.countDown();
+				new CountDownLatch(1).await();
+			}
+			return onChain(hash);
+		};
+		ReconciliationJob job = job(hanging);
+		AtomicReference<ReconciliationCheckpoint> result = new AtomicReference<>();
+		Thread runner = new Thread(() -> result.set(job.run()));
+		runner.start();
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		job.shutdown();
+		runner.join(10_000);
+
+		assertFalse(runner.isAlive());
+		assertFalse(result.get().isComplete());
+		assertEquals(2 * PAGE_SIZE, savedCheckpoint().getScanned());
+		assertEquals(expectedMismatchesBefore(2 * PAGE_SIZE), reportedIds());
+
+		ReconciliationCheckpoint resumed = job(this::onChain).run();
+		assertTrue(resumed.isComplete());
+		assertEquals(ROWS, resumed.getScanned());
+		assertEquals(expectedMismatches(0), reportedIds());
+	}
+
+	@Test
+	void resumedRunCutsTheReportBackToTheCheckpoint() throws IOException {
+		AtomicBoolean chainDown = new AtomicBoolean(true);
+		ChainClient chain = hash -> {
+			if (hash.equals(hash(STUCK_ROW)) && chainDown.get()) {
+				throw new IOException("node down");
+			}
+			return onChain(hash);
+		};
+		job(chain).run();
+
+		// A crash after the page's mismatches were written but before its checkpoint was saved
+		Path report = reportFile();
+		long checkpointed = savedCheckpoint().getReportBytes();
+		assertEquals(checkpointed, Files.size(report));
+		Files.writeString(report, "{\"reason\":\"NOT_ON_CHAIN\",\"transactionId\":\"tx-27\"}\n{\"reason\":\"NOT_",
+			StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		chainDown.set(false);
+		ReconciliationCheckpoint resumed = job(chain).run();
+		assertTrue(resumed.isComplete());
+		assertEquals(expectedMismatches(0), reportedIds());
+		assertEquals(resumed.getReportBytes(), Files.size(report));
+	}
+
+	@Test
+	void legacyCheckpointIsResumedFromWhereItGotTo() throws IOException {
+		Path dir = Files.createDirectories(directory.resolve("reconciliation"));
+		Files.writeString(dir.resolve("checkpoint.properties"), "runId=legacy\n"
+			+ "until=" + BASE.plusDays(1) + "\n"
+			+ "completedThrough=" + BASE.plusMinutes(20) + "\n"
+			+ "scanned=20\n");
+
+		ReconciliationCheckpoint checkpoint = job(this::onChain).run();
+		assertEquals("legacy", checkpoint.getRunId());
+		assertTrue(checkpoint.isComplete());
+		assertEquals(ROWS, checkpoint.getScanned());
+		assertEquals(expectedMismatches(20), reportedIds());
+	}
+
+	private ReconciliationJob job(ChainClient chainClient) {
+		ReconciliationJob job = new ReconciliationJob();
+		ReflectionTestUtils.setField(job, "transactionRepository", repository);
+		ReflectionTestUtils.setField(job, "dependencyGuards", guards);
+		ReflectionTestUtils.setField(job, "chainClient", chainClient);
+		ReflectionTestUtils.setField(job, "enabled", true);
+		ReflectionTestUtils.setField(job, "directory", directory.resolve("reconciliation").toString());
+		ReflectionTestUtils.setField(job, "since", BASE.toString());
+		ReflectionTestUtils.setField(job, "pageSize", PAGE_SIZE);
+		ReflectionTestUtils.setField(job, "settle", Duration.ZERO);
+		ReflectionTestUtils.setField(job, "parallelism", 2);
+		ReflectionTestUtils.setField(job, "maxThreads", 4);
+		ReflectionTestUtils.setField(job, "leafSize", 2);
+		ReflectionTestUtils.setField(job, "lookupAttempts", 3);
+		ReflectionTestUtils.setField(job, "lookupBackoff", Duration.ofMillis(1));
+		job.init();
+		jobs.add(job);
+		return job;
+	}
+
+	/**
+	 * Every third row is pending; of the confirmed ones, rows ending in 1 have
+	 * no hash, 4 a malformed one and 7 a hash the chain does not know
+	 */
+	private static Transaction row(int i) {
+		Transaction t = new Transaction();
+		t.setId("tx-" + i);
+		t.setCharityId("charity-" + i % 3);
+		t.setDonorName("donor-" + i);
+		t.setAmount(new BigDecimal("10.00"));
+		t.setStatus(i % 3 == 2 ? "PENDING" : "CONFIRMED");
+		t.setTransactionHash(i % 10 == 1 ? null : i % 10 == 4 ? "0xZZ" : hash(i));
+		t.setCreatedAt(BASE.plusMinutes(i));
+		return t;
+	}
+
+	private static String hash(int i) {
+		return "0x" + Integer.toHexString(0x1000 + i);
+	}
+
+	private boolean onChain(String hash) {
+		return (Integer.parseInt(hash.substring(2), 16) - 0x1000) % 10 != 7;
+	}
+
+	private static List<Integer> confirmedRows(int from) {
+		List<Integer> rows = new ArrayList<>();
+		for (int i = from; i < ROWS; i++) {
+			if (i % 3 != 2) {
+				rows.add(i);
+			}
+		}
+		return rows;
+	}
+
+	private static List<String> expectedMismatches(int from) {
+		return mismatchIds(from, ROWS);
+	}
+
+	private static List<String> expectedMismatchesBefore(int to) {
+		return mismatchIds(0, to);
+	}
+
+	private static List<String> mismatchIds(int from, int to) {
+		List<String> ids = new ArrayList<>();
+		for (int i : confirmedRows(from)) {
+			if (i < to && (i % 10 == 1 || i % 10 == 4 || i % 10 == 7)) {
+				ids.add("tx-" + i);
+			}
+		}
+		Collections.sort(ids);
+		return ids;
+	}
+
+	private ReconciliationCheckpoint savedCheckpoint() throws IOException {
+		return ReconciliationCheckpoint.load(directory.resolve("reconciliation").resolve("checkpoint.properties"));
+	}
+
+	private Path reportFile() throws IOException {
+		try (Stream<Path> list = Files.list(directory.resolve("reconciliation"))) {
+			List<Path> reports = list
+				.filter(p -> p.getFileName().toString().startsWith("mismatches-"))
+				.collect(Collectors.toList());
+			assertEquals(1, reports.size(), reports.toString());
+			return reports.get(0);
+		}
+	}
+
+	/**
+	 * Transaction ids in the report, sorted; a page's mismatches are written in completion order
+	 */
+	private List<String> reportedIds() throws IOException {
+		List<String> ids = new ArrayList<>();
+		for (String line : Files.readAllLines(reportFile(), StandardCharsets.UTF_8)) {
+			assertTrue(line.startsWith("{\"reason\":\"") && line.endsWith("}"), line);
+			int start = line.indexOf("\"transactionId\":\"") + "\"transactionId\":\"".length();
+			ids.add(line.substring(start, line.indexOf('"', start)));
+		}
+		Collections.sort(ids);
+		return ids;
+	}
+}
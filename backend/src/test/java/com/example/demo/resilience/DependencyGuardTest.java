@@ -0,0 +1,118 @@
+package com.example.demo.resilience;
+
+import com.example.demo.resilience.DependencyUnavailableException.Reason;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyGuardTest {
+
+	private final CircuitBreaker breaker = new CircuitBreaker(4, 2, 50, 100,
+		TimeUnit.SECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(1), 1);
+
+	private final DependencyGuard guard = new DependencyGuard("test", 2, 1000, breaker,
+		e -> e instanceof IOException || e instanceof UncheckedIOException);
+
+	@AfterEach
+	void shutdown() {
+		guard.shutdown();
+	}
+
+	@Test
+	void outageFailureIsReportedAsUnavailable() {
+		DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+			() -> guard.call(() -> {
+				throw new IOException("connection refused");
+			}));
+
+		assertEquals(Reason.FAILED, e.getReason());
+		assertTrue(e.getCause() instanceof IOException);
+	}
+
+	@Test
+	void otherFailureIsRethrownAndDoesNotTripTheBreaker() {
+		for (int i = 0; i < 4; i++) {
+			assertThrows(IllegalArgumentException.class, () -> guard.call(() -> {
+				throw new IllegalArgumentException("bad row");
+			}));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+	}
+
+	@Test
+	void checkedNonOutageFailureIsWrapped() {
+		RuntimeException e = assertThrows(RuntimeException.class, () -> guard.call(() -> {
+			throw new Exception("checked");
+		}));
+
+		assertEquals("checked", e.getCause().getMessage());
+	}
+
+	@Test
+	void outageFailuresOpenTheBreaker() {
+		for (int i = 0; i < 2; i++) {
+			assertThrows(DependencyUnavailableException.class, () -> guard.run(() -> {
+				throw new UncheckedIOException(new IOException("timeout"));
+			}));
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+	}
+
+	@Test
+	void lateResultFromClosedGenerationIsNotCountedAsTrial() throws InterruptedException {
+		long closedPermit = breaker.tryAcquire();
+		breaker.onResult(breaker.tryAcquire(), 0, true);
+		breaker.onResult(breaker.tryAcquire(), 0, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		Thread.sleep(5);
+		long trialPermit = breaker.tryAcquire();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		// A slow success started while CLOSED must not close the breaker
+		breaker.onResult(closedPermit, 0, false);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		breaker.onResult(trialPermit, 0, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void lateFailureFromClosedGenerationDoesNotReopen() throws InterruptedException {
+		long closedPermit = breaker.tryAcquire();
+		breaker.onResult(breaker.tryAcquire(), 0, true);
+		breaker.onResult(breaker.tryAcquire(), 0, true);
+
+		Thread.sleep(5);
+		long trialPermit = breaker.tryAcquire();
+		breaker.onResult(closedPermit, 0, true);
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.onResult(trialPermit, 0, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void callsAreRefusedWhileOpen() {
+		CircuitBreaker open = new CircuitBreaker(4, 2, 50, 100, TimeUnit.SECONDS.toNanos(10), TimeUnit.HOURS.toNanos(1), 1);
+		open.onResult(open.tryAcquire(), 0, true);
+		open.onResult(open.tryAcquire(), 0, true);
+		DependencyGuard openGuard = new DependencyGuard("open", 1, 1000, open, e -> true);
+
+		DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+			() -> openGuard.call(() -> "never"));
+
+		assertEquals(Reason.CIRCUIT_OPEN, e.getReason());
+		assertEquals(-1, open.tryAcquire());
+		openGuard.shutdown();
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostingListTest {
+
+	@Test
+	void nextWalksEveryDocInOrder() {
+		PostingList list = new PostingList();
+		int[] docs = { 0, 1, 127, 128, 300, 70_000, 2_000_000 };
+		for (int doc : docs) {
+			list.add(doc);
+		}
+		list.add(2_000_000);
+
+		PostingList.Cursor cursor = list.cursor();
+		for (int doc : docs) {
+			assertEquals(doc, cursor.next());
+		}
+		assertEquals(PostingList.NO_MORE_DOCS, cursor.next());
+		assertEquals(docs.length, list.count());
+	}
+
+	@Test
+	void advanceMatchesBruteForceAcrossSkipEntries() {
+		Random random = new Random(11);
+		for (int size : new int[] { 1, 127, 128, 129, 1000, 50_000 }) {
+			PostingList list = new PostingList();
+			TreeSet<Integer> expected = new TreeSet<>();
+			int doc = -1;
+			for (int i = 0; i < size; i++) {
+				doc += 1 + random.nextInt(random.nextBoolean() ? 3 : 500);
+				list.add(doc);
+				expected.add(doc);
+			}
+			int last = doc;
+
+			PostingList.Cursor cursor = list.cursor();
+			int target = 0;
+			while (true) {
+				Integer ceiling = expected.ceiling(target);
+				int advanced = cursor.advance(target);
+				assertEquals(ceiling == null ? PostingList.NO_MORE_DOCS : ceiling, advanced, "size=" + size + " target=" + target);
+				if (ceiling == null) {
+					break;
+				}
+				// Targets behind the cursor leave it where it is
+				assertEquals(advanced, cursor.advance(target - 1));
+				// Mix short steps with long jumps over many skip entries
+				target = advanced + (random.nextInt(4) == 0 ? 1 + random.nextInt(Math.max(1, last / 10)) : 1);
+			}
+		}
+	}
+
+	@Test
+	void advanceLandsOnSkipEntryDocsExactly() {
+		PostingList list = new PostingList();
+		for (int i = 0; i < 10 * PostingList.SKIP_INTERVAL; i++) {
+			list.add(i * 3);
+		}
+		for (int k = 1; k <= 10; k++) {
+			int skipDoc = (k * PostingList.SKIP_INTERVAL - 1) * 3;
+			assertEquals(skipDoc, list.cursor().advance(skipDoc));
+			assertEquals(skipDoc + 3 < 10 * PostingList.SKIP_INTERVAL * 3 ? skipDoc + 3 : PostingList.NO_MORE_DOCS,
+				list.cursor().advance(skipDoc + 1));
+		}
+	}
+
+	@Test
+	void cursorSeesPostingsAppendedAfterItWasCreated() {
+		PostingList list = new PostingList();
+		list.add(5);
+		PostingList.Cursor cursor = list.cursor();
+		assertEquals(5, cursor.next());
+		for (int i = 1; i <= 1000; i++) {
+			list.add(5 + i * 2);
+		}
+		assertEquals(1001, cursor.advance(1000));
+		assertEquals(2005, cursor.advance(2005));
+		assertEquals(PostingList.NO_MORE_DOCS, cursor.advance(2006));
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionSearchIndexTest {
+
+	private final TransactionSearchIndex index = new TransactionSearchIndex();
+
+	@BeforeEach
+	void load() {
+		index.index(transaction("t1", "charity-1", "Anna Schmidt", "For the shelter"));
+		index.index(transaction("t2", "charity-2", "J\u00f6rg Annaberg", null));
+		index.index(transaction("t3", "charity-1", "Bob Stone", "annual gift"));
+		index.markReady();
+	}
+
+	@Test
+	void substringMatchesDonorNameOrMessageIgnoringAccents() {
+		assertEquals(List.of("t1", "t2", "t3"), index.search("ann", null, 0, 10));
+		assertEquals(List.of("t2"), index.search("jorg", null, 0, 10));
+		assertEquals(List.of("t1"), index.search("shelter", null, 0, 10));
+	}
+
+	@Test
+	void shortTermsFilterTrigramCandidatesAsWordPrefixes() {
+		assertEquals(List.of("t1"), index.search("ann sc", null, 0, 10));
+		assertEquals(List.of("t3"), index.search("ann gi", null, 0, 10));
+	}
+
+	@Test
+	void queryWithoutALongEnoughTermReturnsNothing() {
+		assertFalse(TransactionSearchIndex.isSearchable("an b"));
+		assertTrue(TransactionSearchIndex.isSearchable("an bob"));
+		assertTrue(index.search("an b", null, 0, 10).isEmpty());
+	}
+
+	@Test
+	void pagingAndCharityFilter() {
+		assertEquals(List.of("t2"), index.search("ann", null, 1, 1));
+		assertTrue(index.search("ann", null, 0, 0).isEmpty());
+		assertEquals(List.of("t1", "t3"), index.search("ann", "charity-1", 0, 10));
+	}
+
+	@Test
+	void updatesAndRemovalsAreReflected() {
+		index.index(transaction("t1", "charity-1", "Clara Weiss", null));
+		index.remove("t3");
+
+		assertEquals(List.of("t2"), index.search("ann", null, 0, 10));
+		assertEquals(List.of("t1"), index.search("weiss", null, 0, 10));
+		assertTrue(index.rebuildIfFragmented(0.1));
+		assertEquals(List.of("t1"), index.search("clara", null, 0, 10));
+		assertEquals(2, index.size());
+	}
+
+	private static Transaction transaction(String id, String charityId, String donor, String message) {
+		Transaction t = new Transaction();
+		t.setId(id);
+		t.setCharityId(charityId);
+		t.setDonorName(donor);
+		t.setMessage(message);
+		return t;
+	}
+}
@@ -0,0 +1,405 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogStructuredStoreTest {
+
+	private static final int SEGMENT_SIZE = 4096;
+	private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@TempDir
+	Path directory;
+
+	private LogStructuredStore store;
+
+	@AfterEach
+	void close() throws IOException {
+		if (store != null) {
+			store.close();
+		}
+	}
+
+	@Test
+	void putGetAndOverwrite() throws IOException {
+		store = open();
+		store.put(transaction("a", "charity-1", 1, "10.00"));
+		store.put(transaction("a", "charity-1", 1, "12.50"));
+
+		assertEquals(1, store.count());
+		assertEquals(new BigDecimal("12.50"), store.get("a").getAmount());
+		assertNull(store.get("missing"));
+	}
+
+	@Test
+	void restartReplaysPutsAndDeletes() throws IOException {
+		store = open();
+		for (int i = 0; i < 100; i++) {
+			store.put(transaction("t" + i, "charity-" + (i % 3), i, "1.00"));
+		}
+		store.put(transaction("t5", "charity-2", 5, "9.99"));
+		assertTrue(store.delete("t7"));
+		assertFalse(store.delete("t7"));
+		assertTrue(store.segmentCount() > 1);
+
+		reopen();
+
+		assertEquals(99, store.count());
+		assertNull(store.get("t7"));
+		assertEquals(new BigDecimal("9.99"), store.get("t5").getAmount());
+		assertEquals("charity-2", store.get("t5").getCharityId());
+	}
+
+	@Test
+	void tornTailRecordIsDiscardedOnRecovery() throws IOException {
+		store = open();
+		for (int i = 0; i < 5; i++) {
+			store.put(transaction("t" + i, "charity-1", i, "1.00"));
+		}
+		store.close();
+		store = null;
+
+		// Simulate a crash mid-append: a header whose payload never made it to disk
+		Path segmentPath = lastSegment();
+		int end;
+		LogSegment segment = LogSegment.open(segmentPath, 0, SEGMENT_SIZE);
+		try {
+			end = segment.scan((offset, size, type, payload) -> { });
+		} finally {
+			segment.close();
+		}
+		try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+			ByteBuffer torn = ByteBuffer.allocate(24);
+			torn.putInt(200).putInt(0x12345678).put(LogSegment.TYPE_PUT).put(new byte[] { 1, 2, 3 });
+			torn.flip();
+			channel.write(torn, end);
+		}
+
+		store = open();
+		assertEquals(5, store.count());
+		store.put(transaction("after-crash", "charity-1", 9, "2.00"));
+
+		reopen();
+		assertEquals(6, store.count());
+		assertEquals(new BigDecimal("2.00"), store.get("after-crash").getAmount());
+		assertEquals(new BigDecimal("1.00"), store.get("t4").getAmount());
+	}
+
+	@Test
+	void corruptRecordStopsReplayAtLastIntactRecord() throws IOException {
+		store = open();
+		store.put(transaction("first", "charity-1", 1, "1.00"));
+		store.put(transaction("second", "charity-1", 2, "1.00"));
+		store.close();
+		store = null;
+
+		// Flip a payload byte of the second record so its checksum fails
+		Path segmentPath = lastSegment();
+		int[] secondOffset = new int[1];
+		LogSegment segment = LogSegment.open(segmentPath, 0, SEGMENT_SIZE);
+		try {
+			segment.scan((offset, size, type, payload) -> secondOffset[0] = offset);
+		} finally {
+			segment.close();
+		}
+		try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			long position = secondOffset[0] + LogSegment.HEADER_SIZE + 3;
+			channel.read(b, position);
+			b.put(0, (byte) (b.get(0) ^ 0xFF));
+			b.rewind();
+			channel.write(b, position);
+		}
+
+		store = open();
+		assertEquals(1, store.count());
+		assertEquals("first", store.get("first").getId());
+		assertNull(store.get("second"));
+	}
+
+	@Test
+	void compactionRemovesGarbageAndKeepsLatestVersions() throws IOException {
+		store = open();
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 20; i++) {
+				store.put(transaction("t" + i, "charity-" + (i % 4), i, round + ".00"));
+			}
+		}
+		int before = store.segmentCount();
+
+		int compacted = store.compact(0.5);
+
+		assertTrue(compacted > 0);
+		assertTrue(store.segmentCount() < before);
+		assertLatestRound(9);
+		assertEquals(5, store.findByCharity("charity-1").size());
+
+		reopen();
+		assertEquals(20, store.count());
+		assertLatestRound(9);
+		assertEquals(20, store.findByCreatedAtBetween(BASE, BASE.plusHours(1)).size());
+	}
+
+	@Test
+	void tombstoneSurvivesCompactionOfItsSegment() throws IOException {
+		store = open();
+		store.put(transaction("deleted", "charity-1", 0, "1.00"));
+		int n = 0;
+		while (store.segmentCount() == 1) {
+			store.put(transaction("keep" + n, "charity-1", n, "1.00"));
+			n++;
+		}
+		// The tombstone lands in a later segment that then fills with garbage
+		assertTrue(store.delete("deleted"));
+		while (store.segmentCount() < 4) {
+			store.put(transaction("churn", "charity-2", 1, "1.00"));
+		}
+
+		assertTrue(store.compact(0.5) > 0);
+		assertTrue(store.segmentCount() < 4);
+
+		reopen();
+		assertNull(store.get("deleted"));
+		assertEquals(n + 1, store.count());
+		assertTrue(store.get("keep0") != null);
+		assertEquals(1, store.findByCharity("charity-2").size());
+	}
+
+	@Test
+	void createdAtIndexAppliesInclusiveBoundsAndFollowsUpdates() throws IOException {
+		store = open();
+		for (int i = 0; i < 10; i++) {
+			store.put(transaction("t" + i, "charity-1", i, "1.00"));
+		}
+
+		assertEquals(List.of("t2", "t3", "t4"), ids(store.findByCreatedAtBetween(BASE.plusMinutes(2), BASE.plusMinutes(4))));
+
+		store.put(transaction("t3", "charity-1", 50, "1.00"));
+		assertTrue(store.delete("t4"));
+
+		assertEquals(List.of("t2"), ids(store.findByCreatedAtBetween(BASE.plusMinutes(2), BASE.plusMinutes(4))));
+		assertEquals(List.of("t3"), ids(store.findByCreatedAtBetween(BASE.plusMinutes(50), BASE.plusMinutes(50))));
+
+		reopen();
+		assertEquals(List.of("t2"), ids(store.findByCreatedAtBetween(BASE.plusMinutes(2), BASE.plusMinutes(4))));
+		assertEquals(List.of("t3"), ids(store.findByCreatedAtBetween(BASE.plusMinutes(50), BASE.plusMinutes(50))));
+	}
+
+	@Test
+	void pagedScanCoversHalfOpenRangeOnceAndResumesFromCursor() throws IOException {
+		store = open();
+		for (int i = 0; i < 10; i++) {
+			store.put(transaction("t" + i, "charity-1", i / 2, "1.00"));
+		}
+
+		List<String> scanned = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			List<Transaction> page = store.scanByCreatedAt(BASE.plusMinutes(1), BASE.plusMinutes(4), cursor, 3);
+			page.forEach(t -> scanned.add(t.getId()));
+			cursor = page.size() < 3 ? null : LogStructuredStore.cursorOf(page.get(page.size() - 1));
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(List.of("t2", "t3", "t4", "t5", "t6", "t7"), scanned);
+		assertEquals(3, pages);
+		assertEquals(10, store.scanByCreatedAt(null, null, null, 100).size());
+	}
+
+	@Test
+	void charityIndexFollowsMovesAndDropsEmptyCharities() throws IOException {
+		store = open();
+		store.put(transaction("a", "charity-1", 1, "1.00"));
+		store.put(transaction("b", "charity-1", 2, "1.00"));
+		store.put(transaction("c", "charity-2", 3, "1.00"));
+		assertEquals(2, store.indexedCharityCount());
+
+		store.put(transaction("c", "charity-1", 3, "1.00"));
+		assertEquals(List.of("a", "b", "c"), ids(store.findByCharity("charity-1")));
+		assertTrue(store.findByCharity("charity-2").isEmpty());
+		assertEquals(1, store.indexedCharityCount());
+
+		store.delete("a");
+		store.delete("b");
+		store.delete("c");
+		assertEquals(0, store.indexedCharityCount());
+
+		reopen();
+		assertEquals(0, store.indexedCharityCount());
+		assertEquals(0, store.count());
+	}
+
+	@Test
+	void scansNeverReturnAnIdTwiceWhileRecordsAreRekeyed() throws Exception {
+		store = open(1 << 20);
+		int ids = 200;
+		for (int i = 0; i < ids; i++) {
+			store.put(transaction("t" + i, "charity-1", i, "1.00"));
+		}
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> failure = new AtomicReference<>();
+		Thread writer = new Thread(() -> {
+			int round = 0;
+			while (running.get()) {
+				int i = round % ids;
+				int minute = (round / ids) % 2 == 0 ? ids + i : i;
+				store.put(transaction("t" + i, "charity-1", minute, "1.00"));
+				round++;
+			}
+		});
+		writer.start();
+		try {
+			long deadline = System.nanoTime() + 300_000_000L;
+			while (System.nanoTime() < deadline && failure.get() == null) {
+				checkUnique(store.findByCreatedAtBetween(BASE, BASE.plusMinutes(2L * ids)), failure);
+				checkUnique(store.findByCharity("charity-1"), failure);
+			}
+		} finally {
+			running.set(false);
+			writer.join();
+		}
+		assertNull(failure.get());
+	}
+
+	@Test
+	void deletedSegmentIsUnmappedOnceTheLastReaderReleasesIt() throws IOException {
+		Path path = directory.resolve("segment-x.log");
+		LogSegment segment = LogSegment.open(path, 1, SEGMENT_SIZE);
+		int offset = segment.append(LogSegment.TYPE_PUT, new byte[] { 1, 2, 3 });
+
+		assertTrue(segment.retain());
+		segment.delete();
+		assertFalse(Files.exists(path));
+		// The reader that pinned the mapping can still finish its read
+		assertTrue(segment.isMapped());
+		assertEquals(3, segment.readPayload(offset).length);
+
+		segment.release();
+		assertFalse(segment.isMapped());
+		assertFalse(segment.retain());
+	}
+
+	@Test
+	void readersRacingCompactionAlwaysSeeTheLatestRecord() throws Exception {
+		store = open();
+		int ids = 50;
+		for (int i = 0; i < ids; i++) {
+			store.put(transaction("t" + i, "charity-1", i, "1.00"));
+		}
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> failure = new AtomicReference<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; r++) {
+			Thread reader = new Thread(() -> {
+				while (running.get()) {
+					for (int i = 0; i < ids; i++) {
+						Transaction t = store.get("t" + i);
+						if (t == null || !("t" + i).equals(t.getId())) {
+							failure.compareAndSet(null, "bad read of t" + i + ": " + t);
+						}
+					}
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+		try {
+			int compacted = 0;
+			for (int round = 0; round < 200; round++) {
+				for (int i = 0; i < ids; i++) {
+					store.put(transaction("t" + i, "charity-1", i, round + ".00"));
+				}
+				compacted += store.compact(0.5);
+			}
+			assertTrue(compacted > 0);
+		} finally {
+			running.set(false);
+			for (Thread reader : readers) {
+				reader.join();
+			}
+		}
+		assertNull(failure.get());
+		assertLatestRound(199, ids);
+	}
+
+	private static void checkUnique(List<Transaction> rows, AtomicReference<String> failure) {
+		Set<String> seen = new HashSet<>();
+		for (Transaction t : rows) {
+			if (!seen.add(t.getId())) {
+				failure.compareAndSet(null, "duplicate " + t.getId());
+			}
+		}
+	}
+
+	private void assertLatestRound(int round) {
+		assertLatestRound(round, 20);
+	}
+
+	private void assertLatestRound(int round, int ids) {
+		for (int i = 0; i < ids; i++) {
+			assertEquals(new BigDecimal(round + ".00"), store.get("t" + i).getAmount(), "t" + i);
+		}
+	}
+
+	private LogStructuredStore open() throws IOException {
+		return open(SEGMENT_SIZE);
+	}
+
+	private LogStructuredStore open(int segmentSize) throws IOException {
+		return LogStructuredStore.open(directory, segmentSize, false);
+	}
+
+	private void reopen() throws IOException {
+		store.close();
+		store = open();
+	}
+
+	private Path lastSegment() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().reduce((first, second) -> second).orElseThrow();
+		}
+	}
+
+	private static List<String> ids(List<Transaction> rows) {
+		return rows.stream().map(Transaction::getId).sorted().collect(Collectors.toList());
+	}
+
+	private static Transaction transaction(String id, String charityId, int minute, String amount) {
+		Transaction t = new Transaction();
+		t.setId(id);
+		t.setCharityId(charityId);
+		t.setDonorName("Donor " + id);
+		t.setAmount(new BigDecimal(amount));
+		t.setPaymentMethod("CREDIT_CARD");
+		t.setStatus("CONFIRMED");
+		t.setCreatedAt(BASE.plusMinutes(minute));
+		return t;
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.demo.storage;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.CassandraTransactionRepository;
+import com.example.demo.repository.TransactionRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Compares the embedded log-structured store with the Cassandra repository:
+ * write throughput, point-lookup latency and charity-scan throughput.
+ *
+ * Run with: ./gradlew storageBenchmark [-Prows=200000]
+ * Add -Dcassandra.contact-point=host:port [-Dcassandra.datacenter=datacenter1]
+ * [-Dcassandra.keyspace=charity_donations_bench] to include Cassandra.
+ */
+public class StorageBenchmark {
+
+    private static final int CHARITIES = 100;
+    private static final int LOOKUPS = 100_000;
+    private static final int SCANS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<Transaction> data = sampleTransactions(rows);
+
+        System.out.printf("rows=%d charities=%d%n", rows, CHARITIES);
+        System.out.printf("%-10s %12s %12s %12s %14s%n", "engine", "writes/s", "get p50 us", "get p99 us", "scan rows/s");
+
+        Path directory = Files.createTempDirectory("storage-bench");
+        try {
+            try (LogStructuredStore store = LogStructuredStore.open(directory, 64 * 1024 * 1024, false)) {
+                run("embedded", data, store::put, store::get, store::findByCharity);
+            }
+            long start = System.nanoTime();
+            try (LogStructuredStore store = LogStructuredStore.open(directory, 64 * 1024 * 1024, false)) {
+                System.out.printf("embedded recovery: %d records in %d ms%n",
+                    store.count(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+
+        String contactPoint = System.getProperty("cassandra.contact-point");
+        if (contactPoint != null) {
+            String[] hostPort = contactPoint.split(":");
+            String keyspace = System.getProperty("cassandra.keyspace", "charity_donations_bench");
+            try (CqlSession session = CqlSession.builder()
+                    .addContactPoint(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])))
+                    .withLocalDatacenter(System.getProperty("cassandra.datacenter", "datacenter1"))
+                    .build()) {
+                session.execute("CREATE KEYSPACE IF NOT EXISTS " + keyspace
+                    + " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+                session.execute("USE " + keyspace);
+                TransactionRepository repository = new CassandraTransactionRepository(session);
+                ((CassandraTransactionRepository) repository).init();
+                run("cassandra", data, repository::save,
+                    id -> repository.findById(id).orElse(null), repository::findByCharityId);
+            }
+        }
+    }
+
+    private static void run(String name, List<Transaction> data, Consumer<Transaction> put,
+                            Function<String, Transaction> get, Function<String, List<Transaction>> scan) {
+        long start = System.nanoTime();
+        for (Transaction t : data) {
+            put.accept(t);
+        }
+        double writesPerSecond = data.size() / ((System.nanoTime() - start) / 1e9);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String id = data.get(random.nextInt(data.size())).getId();
+            long t0 = System.nanoTime();
+            if (get.apply(id) == null) {
+                throw new IllegalStateException("Missing " + id);
+            }
+            latencies[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(latencies);
+
+        long scanned = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            scanned += scan.apply("charity-" + (i % CHARITIES)).size();
+        }
+        double scanRowsPerSecond = scanned / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("%-10s %12.0f %12.1f %12.1f %14.0f%n", name, writesPerSecond,
+            latencies[LOOKUPS / 2] / 1e3, latencies[LOOKUPS * 99 / 100] / 1e3, scanRowsPerSecond);
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static List<Transaction> sampleTransactions(int rows) {
+        String[] methods = { "CREDIT_CARD", "BANK_TRANSFER", "CRYPTO" };
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        Transaction[] transactions = new Transaction[rows];
+        for (int i = 0; i < rows; i++) {
+            Transaction t = new Transaction();
+            t.setId("TXN-" + (1_600_000_000_000L + i) + "-" + Integer.toHexString(0x10000000 + i));
+            t.setCharityId("charity-" + (i % CHARITIES));
+            t.setDonorName("Donor " + (i % 20_000));
+            t.setAmount(BigDecimal.valueOf(100 + (i * 37L) % 100_000, 2));
+            t.setPaymentMethod(methods[i % methods.length]);
+            t.setStatus("CONFIRMED");
+            t.setMessage(i % 4 == 0 ? "In memory of a friend" : null);
+            t.setCreatedAt(base.plusSeconds(i * 97L));
+            transactions[i] = t;
+        }
+        return Arrays.asList(transactions);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.demo.timeseries;
+
+import com.example.demo.entity.Transaction;
+import com.example.demo.repository.EmbeddedTransactionRepository;
+import com.example.demo.repository.TransactionPage;
+import com.example.demo.resilience.DependencyGuardRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesRollupsTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+	@TempDir
+	Path directory;
+
+	private CountingRepository repository;
+	private DependencyGuardRegistry guards;
+	private TimeSeriesRollups rollups;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		repository = new CountingRepository();
+		ReflectionTestUtils.setField(repository, "directory", directory.toString());
+		ReflectionTestUtils.setField(repository, "segmentSizeMb", 1);
+		repository.open();
+		guards = new DependencyGuardRegistry();
+		ReflectionTestUtils.setField(guards, "environment", new StandardEnvironment());
+
+		rollups = new TimeSeriesRollups();
+		ReflectionTestUtils.setField(rollups, "transactionRepository", repository);
+		ReflectionTestUtils.setField(rollups, "dependencyGuards", guards);
+		ReflectionTestUtils.setField(rollups, "minuteRetention", Duration.ofDays(2));
+		ReflectionTestUtils.setField(rollups, "hourRetention", Duration.ofDays(90));
+		ReflectionTestUtils.setField(rollups, "dayRetention", Duration.ofDays(1825));
+		ReflectionTestUtils.setField(rollups, "maxPoints", 1000);
+		ReflectionTestUtils.setField(rollups, "repairPageSize", 1000);
+		rollups.init();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		guards.shutdown();
+		repository.close();
+	}
+
+	@Test
+	void reappliedIdReplacesItsContributionInsteadOfAddingToIt() {
+		rollups.markReady();
+		rollups.apply(transaction("a", "charity-1", "10.00", 5));
+		rollups.apply(transaction("a", "charity-1", "10.00", 5));
+		rollups.apply(transaction("b", "charity-1", "4.00", 5));
+		assertTotals("charity-1", 2, "14.00");
+
+		// Amount, time and charity changes all move the one contribution
+		rollups.apply(transaction("a", "charity-1", "7.50", 5));
+		assertTotals("charity-1", 2, "11.50");
+		rollups.apply(transaction("a", "charity-2", "7.50", 30));
+		assertTotals("charity-1", 1, "4.00");
+		assertTotals("charity-2", 1, "7.50");
+
+		rollups.remove("a");
+		rollups.remove("a");
+		assertTotals("charity-2", 0, null);
+		assertTotals(null, 1, "4.00");
+	}
+
+	@Test
+	void loaderSkipsIdsClaimedByLiveWrites() {
+		rollups.addLoaded(transaction("a", "charity-1", "1.00", 5));
+
+		// A live update and a live create race the loader
+		rollups.claim("a");
+		rollups.apply(transaction("a", "charity-1", "3.00", 5));
+		rollups.claim("b");
+		rollups.apply(transaction("b", "charity-1", "2.00", 5));
+
+		// The loader then reads an older version of b and a row it has already counted
+		rollups.addLoaded(transaction("b", "charity-1", "9.00", 5));
+		rollups.addLoaded(transaction("a", "charity-1", "1.00", 5));
+		rollups.markReady();
+
+		assertTotals("charity-1", 2, "5.00");
+	}
+
+	@Test
+	void chooseTakesTheFinestRetainedTierWithinThePointBudget() {
+		long now = Resolution.toEpochMillis(LocalDateTime.of(2025, 1, 15, 12, 0));
+		long hour = Resolution.HOUR.nominalMillis();
+		long day = Resolution.DAY.nominalMillis();
+
+		// An hour is 61 minute buckets or 2 hour buckets
+		assertEquals(Resolution.MINUTE, rollups.choose(now - hour, now, 61, now));
+		assertEquals(Resolution.HOUR, rollups.choose(now - hour, now, 60, now));
+		// Minute buckets are gone after 2 days, hour buckets after 90
+		assertEquals(Resolution.HOUR, rollups.choose(now - 3 * day, now - 3 * day + hour, 1000, now));
+		assertEquals(Resolution.DAY, rollups.choose(now - 100 * day, now, 1000, now));
+		assertEquals(Resolution.MONTH, rollups.choose(now - 100 * day, now, 100, now));
+		assertEquals(Resolution.MONTH, rollups.choose(now - 6 * 365 * day, now - 6 * 365 * day + hour, 1000, now));
+		// A budget too small for any tier still gets the coarsest
+		assertEquals(Resolution.MONTH, rollups.choose(now - 400 * day, now, 1, now));
+	}
+
+	@Test
+	void compactDropsBucketsPastEachTiersRetention() {
+		rollups.markReady();
+		rollups.apply(transaction("a", "charity-1", "1.00", 150));
+		rollups.apply(transaction("b", "charity-1", "2.00", 0));
+		assertEquals(2, rollups.bucketCount(Resolution.MINUTE));
+		assertEquals(2, rollups.bucketCount(Resolution.HOUR));
+
+		// Minute buckets now cover only the last hour; the coarser tiers keep both rows
+		retention(Resolution.MINUTE, Duration.ofHours(1));
+		rollups.compact();
+		assertEquals(1, rollups.bucketCount(Resolution.MINUTE));
+		assertEquals(2, rollups.bucketCount(Resolution.HOUR));
+		assertTotals("charity-1", 2, "3.00");
+
+		// Hour buckets from the previous hour on; a's is older. Days still hold both rows.
+		retention(Resolution.HOUR, Duration.ofHours(1));
+		rollups.compact();
+		assertEquals(1, rollups.bucketCount(Resolution.MINUTE));
+		assertEquals(1, rollups.bucketCount(Resolution.HOUR));
+		assertTotals("charity-1", 2, "3.00");
+	}
+
+	@Test
+	void compactRepairsStaleExtremesFromTheFinerTier() {
+		rollups.markReady();
+		rollups.apply(transaction("a", "charity-1", "5.00", 10));
+		rollups.apply(transaction("b", "charity-1", "9.00", 20));
+		rollups.apply(transaction("c", "charity-1", "1.00", 30));
+		rollups.remove("b");
+		assertEquals(new BigDecimal("9.00"), hourPoint("charity-1").getMax());
+
+		rollups.compact();
+		TimeSeriesPoint point = hourPoint("charity-1");
+		assertEquals(new BigDecimal("5.00"), point.getMax());
+		assertEquals(new BigDecimal("1.00"), point.getMin());
+		// Every tier above a minute bucket was repaired from the one below it
+		assertEquals(0, repository.scans.get());
+	}
+
+	@Test
+	void compactRepairsAllSeriesOfAStaleBucketWithOnePagedScan() {
+		rollups.markReady();
+		// Same minute, two series; the minute tier has no finer tier to repair from
+		for (String charity : List.of("charity-1", "charity-2")) {
+			save(transaction(charity + "-low", charity, "2.00", 10));
+			save(transaction(charity + "-high", charity, "8.00", 10));
+		}
+		repository.deleteById("charity-1-high");
+		rollups.remove("charity-1-high");
+		repository.deleteById("charity-2-low");
+		rollups.remove("charity-2-low");
+
+		rollups.compact();
+		assertEquals(1, repository.scans.get());
+		assertExtremes("charity-1", "2.00", "2.00");
+		assertExtremes("charity-2", "8.00", "8.00");
+
+		// Pages smaller than the bucket still see every row
+		ReflectionTestUtils.setField(rollups, "repairPageSize", 1);
+		save(transaction("charity-1-mid", "charity-1", "5.00", 10));
+		save(transaction("charity-1-top", "charity-1", "7.00", 10));
+		repository.deleteById("charity-1-top");
+		rollups.remove("charity-1-top");
+		repository.scans.set(0);
+		rollups.compact();
+		// Three rows a page at a time, then an empty page
+		assertEquals(4, repository.scans.get());
+		assertExtremes("charity-1", "2.00", "5.00");
+	}
+
+	private void save(Transaction transaction) {
+		repository.save(transaction);
+		rollups.apply(transaction);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void retention(Resolution resolution, Duration retention) {
+		((Map<Resolution, Long>) ReflectionTestUtils.getField(rollups, "retentionMillis")).put(resolution, retention.toMillis());
+	}
+
+	private TimeSeriesPoint hourPoint(String charityId) {
+		TimeSeries series = rollups.query(charityId, null, NOW.minusHours(1), NOW.minusMinutes(1), 3);
+		assertEquals(Resolution.HOUR, series.getResolution());
+		assertEquals(1, series.getPoints().size());
+		return series.getPoints().get(0);
+	}
+
+	private void assertExtremes(String charityId, String min, String max) {
+		LocalDateTime minute = NOW.minusMinutes(10);
+		TimeSeries series = rollups.query(charityId, null, minute, minute, 1);
+		assertEquals(Resolution.MINUTE, series.getResolution());
+		TimeSeriesPoint point = series.getPoints().get(0);
+		assertEquals(new BigDecimal(min), point.getMin(), charityId);
+		assertEquals(new BigDecimal(max), point.getMax(), charityId);
+	}
+
+	private void assertTotals(String charityId, long count, String sum) {
+		List<TimeSeriesPoint> points = rollups.query(charityId, null, NOW.minusDays(1), NOW.plusDays(1), 3).getPoints();
+		if (sum == null) {
+			assertTrue(points.isEmpty(), points.toString());
+			return;
+		}
+		assertEquals(count, points.stream().mapToLong(TimeSeriesPoint::getCount).sum());
+		assertEquals(new BigDecimal(sum), points.stream().map(TimeSeriesPoint::getSum).reduce(BigDecimal.ZERO, BigDecimal::add));
+	}
+
+	private static Transaction transaction(String id, String charityId, String amount, int minute) {
+		Transaction t = new Transaction();
+		t.setId(id);
+		t.setCharityId(charityId);
+		t.setAmount(new BigDecimal(amount));
+		t.setPaymentMethod("CREDIT_CARD");
+		t.setCreatedAt(NOW.minusMinutes(minute));
+		return t;
+	}
+
+	/**
+	 * Counts store scans, to check that repairs share one pass per bucket
+	 */
+	private static final class CountingRepository extends EmbeddedTransactionRepository {
+		final AtomicInteger scans = new AtomicInteger();
+
+		@Override
+		public TransactionPage scan(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+			scans.incrementAndGet();
+			return super.scan(start, end, cursor, limit);
+		}
+	}
+}